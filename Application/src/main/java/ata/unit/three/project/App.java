@@ -1,21 +1,33 @@
 package ata.unit.three.project;
 
-import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.config.CacheSettings;
+import ata.unit.three.project.config.DynamoDbClientSettings;
+import ata.unit.three.project.config.RepositorySettings;
+import ata.unit.three.project.config.SortSettings;
+import ata.unit.three.project.expense.dynamodb.DynamoDbEmailVersions;
 import ata.unit.three.project.expense.dynamodb.ExpenseServiceRepository;
-import ata.unit.three.project.expense.service.ExpenseService;
-import ata.unit.three.project.expense.service.ExpenseServiceComponent;
+import ata.unit.three.project.expense.repository.AsyncExpenseRepository;
+import ata.unit.three.project.expense.repository.CachingExpenseRepository;
+import ata.unit.three.project.expense.repository.ExpenseRepository;
+import ata.unit.three.project.expense.repository.IdentityMapRepository;
+import ata.unit.three.project.expense.repository.InMemoryExpenseRepository;
+import ata.unit.three.project.expense.repository.LoadedExpenses;
+import ata.unit.three.project.expense.repository.VersionedQueryCachingRepository;
+import ata.unit.three.project.expense.service.ListSorter;
 import ata.unit.three.project.expense.service.model.ExpenseItemConverter;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import dagger.Module;
 import dagger.Provides;
 
-import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
 
 @Module
 public class App {
-//    @Provides
-//    public static ExpenseService expenseService() {
-//        return new ExpenseService(new ExpenseServiceRepository(), new ExpenseItemConverter());
-//    }
 
     @Provides
     public ExpenseItemConverter providesExpenseItemConverter(){
@@ -23,10 +35,72 @@ public class App {
     }
 
     @Provides
-    public ExpenseServiceRepository providesExpenseServiceRepository() {
-        return new ExpenseServiceRepository();
+    @Singleton
+    public ClientConfiguration providesClientConfiguration() {
+        return DynamoDbClientSettings.clientConfiguration();
     }
 
-}
+    // The one DynamoDB client for the container; the repository and the schema bootstrap share it.
+    @Provides
+    @Singleton
+    public AmazonDynamoDB providesAmazonDynamoDB(ClientConfiguration clientConfiguration) {
+        return AmazonDynamoDBClientBuilder.standard()
+                .withClientConfiguration(clientConfiguration)
+                .build();
+    }
+
+    // Only the CSV import reads from S3; handlers never ask for this client.
+    @Provides
+    @Singleton
+    public AmazonS3 providesAmazonS3() {
+        return AmazonS3ClientBuilder.defaultClient();
+    }
 
-//expenseService should be removed
+    // Hydration reuses the request's expenses only when the identity map is on.
+    @Provides
+    @Singleton
+    public ExpenseServiceRepository providesExpenseServiceRepository(AmazonDynamoDB client) {
+        return new ExpenseServiceRepository(client, DynamoDbClientSettings.batchWriteParallelism(),
+                CacheSettings.identityMapEnabled() ? IdentityMapRepository.loadedExpenses() : LoadedExpenses.NONE);
+    }
+
+    // Providers keep the unused backend (and for memory, the DynamoDB client) from being built.
+    @Provides
+    @Singleton
+    public ExpenseRepository providesExpenseRepository(Provider<ExpenseServiceRepository> dynamoDb,
+                                                       Provider<InMemoryExpenseRepository> inMemory,
+                                                       Provider<DynamoDbEmailVersions> emailVersions) {
+        if (RepositorySettings.isInMemory()) {
+            return inMemory.get();
+        }
+        ExpenseRepository repository = dynamoDb.get();
+        if (CacheSettings.queryCacheEnabled()) {
+            repository = new VersionedQueryCachingRepository(repository, emailVersions.get(),
+                    CacheSettings.queryCacheMaxEntries(),
+                    CacheSettings.queryCacheTtlMillis());
+        }
+        if (CacheSettings.expenseCacheEnabled()) {
+            repository = new CachingExpenseRepository(repository,
+                    CacheSettings.expenseCacheMaxEntries(),
+                    CacheSettings.expenseCacheTtlMillis());
+        }
+        if (CacheSettings.identityMapEnabled()) {
+            repository = new IdentityMapRepository(repository);
+        }
+        return repository;
+    }
+
+    @Provides
+    @Singleton
+    public AsyncExpenseRepository providesAsyncExpenseRepository(ExpenseRepository repository) {
+        return new AsyncExpenseRepository(repository,
+                AsyncExpenseRepository.boundedExecutor(RepositorySettings.asyncReadThreads()));
+    }
+
+    @Provides
+    @Singleton
+    public ListSorter providesListSorter() {
+        return new ListSorter(SortSettings.parallelism(), SortSettings.sequentialCutoff());
+    }
+
+}
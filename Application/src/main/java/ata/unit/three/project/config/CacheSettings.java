@@ -0,0 +1,51 @@
+package ata.unit.three.project.config;
+
+/**
+ * Sizes and lifetimes of the per-container repository caches. Every value can be overridden
+ * through {@link Settings}.
+ */
+public final class CacheSettings {
+
+    static final String EXPENSE_CACHE_ENABLED = "EXPENSE_CACHE_ENABLED";
+    static final String EXPENSE_CACHE_MAX_ENTRIES = "EXPENSE_CACHE_MAX_ENTRIES";
+    static final String EXPENSE_CACHE_TTL_MS = "EXPENSE_CACHE_TTL_MS";
+    static final String QUERY_CACHE_ENABLED = "EXPENSE_QUERY_CACHE_ENABLED";
+    static final String QUERY_CACHE_MAX_ENTRIES = "EXPENSE_QUERY_CACHE_MAX_ENTRIES";
+    static final String QUERY_CACHE_TTL_MS = "EXPENSE_QUERY_CACHE_TTL_MS";
+    static final String IDENTITY_MAP_ENABLED = "EXPENSE_IDENTITY_MAP_ENABLED";
+
+    private CacheSettings() {
+    }
+
+    public static boolean expenseCacheEnabled() {
+        return Settings.getBoolean(EXPENSE_CACHE_ENABLED, true);
+    }
+
+    public static int expenseCacheMaxEntries() {
+        return Settings.getInt(EXPENSE_CACHE_MAX_ENTRIES, 10000);
+    }
+
+    // Bounds how long a change made by another container can go unseen.
+    public static long expenseCacheTtlMillis() {
+        return Settings.getLong(EXPENSE_CACHE_TTL_MS, 30000L);
+    }
+
+    public static boolean queryCacheEnabled() {
+        return Settings.getBoolean(QUERY_CACHE_ENABLED, true);
+    }
+
+    // Entries hold whole result lists, so far fewer of them fit than single expenses.
+    public static int queryCacheMaxEntries() {
+        return Settings.getInt(QUERY_CACHE_MAX_ENTRIES, 500);
+    }
+
+    // Versions catch writes made through the service; this bounds index lag and failed increments.
+    public static long queryCacheTtlMillis() {
+        return Settings.getLong(QUERY_CACHE_TTL_MS, 60000L);
+    }
+
+    // The per-request identity map; it holds nothing between requests, so it needs no size or TTL.
+    public static boolean identityMapEnabled() {
+        return Settings.getBoolean(IDENTITY_MAP_ENABLED, true);
+    }
+}
@@ -0,0 +1,46 @@
+package ata.unit.three.project.config;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+
+/**
+ * Connection pool, timeout and retry settings for the shared DynamoDB client. Every value can be
+ * overridden through {@link Settings}, e.g. {@code DYNAMODB_MAX_CONNECTIONS=100} in the function's
+ * environment.
+ */
+public final class DynamoDbClientSettings {
+
+    static final String MAX_CONNECTIONS = "DYNAMODB_MAX_CONNECTIONS";
+    static final String CONNECTION_TIMEOUT_MS = "DYNAMODB_CONNECTION_TIMEOUT_MS";
+    static final String SOCKET_TIMEOUT_MS = "DYNAMODB_SOCKET_TIMEOUT_MS";
+    static final String REQUEST_TIMEOUT_MS = "DYNAMODB_REQUEST_TIMEOUT_MS";
+    static final String CLIENT_EXECUTION_TIMEOUT_MS = "DYNAMODB_CLIENT_EXECUTION_TIMEOUT_MS";
+    static final String CONNECTION_TTL_MS = "DYNAMODB_CONNECTION_TTL_MS";
+    static final String CONNECTION_MAX_IDLE_MS = "DYNAMODB_CONNECTION_MAX_IDLE_MS";
+    static final String TCP_KEEP_ALIVE = "DYNAMODB_TCP_KEEP_ALIVE";
+    static final String MAX_ERROR_RETRY = "DYNAMODB_MAX_ERROR_RETRY";
+    static final String BATCH_WRITE_PARALLELISM = "DYNAMODB_BATCH_WRITE_PARALLELISM";
+
+    private DynamoDbClientSettings() {
+    }
+
+    public static ClientConfiguration clientConfiguration() {
+        return new ClientConfiguration()
+                .withMaxConnections(Settings.getInt(MAX_CONNECTIONS, 50))
+                .withConnectionTimeout(Settings.getInt(CONNECTION_TIMEOUT_MS, 1000))
+                .withSocketTimeout(Settings.getInt(SOCKET_TIMEOUT_MS, 5000))
+                // Per attempt; the execution timeout below caps the whole call including retries.
+                .withRequestTimeout(Settings.getInt(REQUEST_TIMEOUT_MS, 3000))
+                .withClientExecutionTimeout(Settings.getInt(CLIENT_EXECUTION_TIMEOUT_MS, 10000))
+                .withConnectionTTL(Settings.getLong(CONNECTION_TTL_MS, 60000L))
+                .withConnectionMaxIdleMillis(Settings.getLong(CONNECTION_MAX_IDLE_MS, 30000L))
+                .withTcpKeepAlive(Settings.getBoolean(TCP_KEEP_ALIVE, true))
+                .withRetryPolicy(PredefinedRetryPolicies.getDynamoDBDefaultRetryPolicyWithCustomMaxRetries(
+                        Settings.getInt(MAX_ERROR_RETRY, 3)));
+    }
+
+    // BatchWriteItem chunks in flight at once; each holds one connection from the pool above.
+    public static int batchWriteParallelism() {
+        return Settings.getInt(BATCH_WRITE_PARALLELISM, 4);
+    }
+}
@@ -0,0 +1,29 @@
+package ata.unit.three.project.config;
+
+/**
+ * Parallelism and throughput limits for the expense export job.
+ */
+public final class ExportSettings {
+
+    static final String SEGMENTS = "EXPENSE_EXPORT_SEGMENTS";
+    static final String PAGE_SIZE = "EXPENSE_EXPORT_PAGE_SIZE";
+    static final String READ_UNITS_PER_SECOND = "EXPENSE_EXPORT_READ_UNITS_PER_SECOND";
+
+    private ExportSettings() {
+    }
+
+    // Parallel Scan segments, each with its own thread and part file.
+    public static int segments() {
+        return Settings.getInt(SEGMENTS, 4);
+    }
+
+    // Small pages keep each segment's consumption, and so the budget, smooth.
+    public static int pageSize() {
+        return Settings.getInt(PAGE_SIZE, 500);
+    }
+
+    // Shared by all segments; leave the rest of the table's read capacity to the API.
+    public static long readUnitsPerSecond() {
+        return Settings.getLong(READ_UNITS_PER_SECOND, 100L);
+    }
+}
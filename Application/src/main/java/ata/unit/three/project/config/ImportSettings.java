@@ -0,0 +1,33 @@
+package ata.unit.three.project.config;
+
+/**
+ * Sizing for the CSV import pipeline. Memory use is bounded by
+ * batch size x (queue capacity + writers) expenses, whatever the size of the file.
+ */
+public final class ImportSettings {
+
+    static final String BATCH_SIZE = "EXPENSE_IMPORT_BATCH_SIZE";
+    static final String QUEUE_CAPACITY = "EXPENSE_IMPORT_QUEUE_CAPACITY";
+    static final String WRITERS = "EXPENSE_IMPORT_WRITERS";
+    static final String CHECKPOINT_INTERVAL_ROWS = "EXPENSE_IMPORT_CHECKPOINT_INTERVAL_ROWS";
+
+    private ImportSettings() {
+    }
+
+    // Four BatchWriteItem chunks per batch, so one batch keeps the repository's writers busy.
+    public static int batchSize() {
+        return Settings.getInt(BATCH_SIZE, 100);
+    }
+
+    public static int queueCapacity() {
+        return Settings.getInt(QUEUE_CAPACITY, 16);
+    }
+
+    public static int writers() {
+        return Settings.getInt(WRITERS, 4);
+    }
+
+    public static long checkpointIntervalRows() {
+        return Settings.getLong(CHECKPOINT_INTERVAL_ROWS, 10000L);
+    }
+}
@@ -0,0 +1,38 @@
+package ata.unit.three.project.config;
+
+/**
+ * Parallelism and throughput limits for data migrations.
+ */
+public final class MigrationSettings {
+
+    static final String SEGMENTS = "EXPENSE_MIGRATION_SEGMENTS";
+    static final String PAGE_SIZE = "EXPENSE_MIGRATION_PAGE_SIZE";
+    static final String CAPACITY_PERCENT = "EXPENSE_MIGRATION_CAPACITY_PERCENT";
+    static final String ON_DEMAND_READ_UNITS = "EXPENSE_MIGRATION_ON_DEMAND_READ_UNITS";
+    static final String ON_DEMAND_WRITE_UNITS = "EXPENSE_MIGRATION_ON_DEMAND_WRITE_UNITS";
+
+    private MigrationSettings() {
+    }
+
+    public static int segments() {
+        return Settings.getInt(SEGMENTS, 4);
+    }
+
+    public static int pageSize() {
+        return Settings.getInt(PAGE_SIZE, 100);
+    }
+
+    // Share of the table's provisioned read and write capacity a migration may use.
+    public static int capacityPercent() {
+        return Settings.getInt(CAPACITY_PERCENT, 20);
+    }
+
+    // On-demand tables have no provisioned figure to take a share of, so these are absolute.
+    public static long onDemandReadUnits() {
+        return Settings.getLong(ON_DEMAND_READ_UNITS, 100L);
+    }
+
+    public static long onDemandWriteUnits() {
+        return Settings.getLong(ON_DEMAND_WRITE_UNITS, 50L);
+    }
+}
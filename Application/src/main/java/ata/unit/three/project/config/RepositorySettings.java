@@ -0,0 +1,34 @@
+package ata.unit.three.project.config;
+
+/**
+ * Which {@code ExpenseRepository} backs the service, chosen with {@code EXPENSE_REPOSITORY}:
+ * {@code dynamodb} (the default) or {@code memory} for benchmarks and local load runs.
+ */
+public final class RepositorySettings {
+
+    static final String BACKEND = "EXPENSE_REPOSITORY";
+    static final String ASYNC_READ_THREADS = "EXPENSE_ASYNC_READ_THREADS";
+    public static final String DYNAMODB = "dynamodb";
+    public static final String IN_MEMORY = "memory";
+
+    private RepositorySettings() {
+    }
+
+    public static String backend() {
+        String backend = Settings.getString(BACKEND, DYNAMODB).trim().toLowerCase();
+        if (!DYNAMODB.equals(backend) && !IN_MEMORY.equals(backend)) {
+            throw new IllegalStateException(BACKEND + " must be " + DYNAMODB + " or " + IN_MEMORY
+                    + " but was " + backend);
+        }
+        return backend;
+    }
+
+    public static boolean isInMemory() {
+        return IN_MEMORY.equals(backend());
+    }
+
+    // Threads for reads the service issues concurrently; each holds a DynamoDB connection while it runs.
+    public static int asyncReadThreads() {
+        return Settings.getInt(ASYNC_READ_THREADS, 4);
+    }
+}
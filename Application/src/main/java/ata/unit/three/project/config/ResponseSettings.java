@@ -0,0 +1,25 @@
+package ata.unit.three.project.config;
+
+/**
+ * Limits on the response bodies handlers produce and when they are compressed.
+ */
+public final class ResponseSettings {
+
+    static final String MAX_RESPONSE_BYTES = "EXPENSE_MAX_RESPONSE_BYTES";
+    static final String GZIP_MIN_BYTES = "EXPENSE_GZIP_MIN_BYTES";
+
+    // Lambda rejects synchronous responses over 6 MB; stop a little short to leave room for headers.
+    static final long DEFAULT_MAX_RESPONSE_BYTES = 6_000_000L;
+
+    private ResponseSettings() {
+    }
+
+    public static long maxResponseBytes() {
+        return Settings.getLong(MAX_RESPONSE_BYTES, DEFAULT_MAX_RESPONSE_BYTES);
+    }
+
+    // Below about a kilobyte the gzip header and base64 overhead eat most of the saving.
+    public static int compressionMinimumBytes() {
+        return Settings.getInt(GZIP_MIN_BYTES, 1024);
+    }
+}
@@ -0,0 +1,51 @@
+package ata.unit.three.project.config;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads runtime settings. A JVM system property wins over an environment variable of the same
+ * name, so settings can be overridden locally with {@code -D} without touching the Lambda
+ * configuration.
+ */
+public final class Settings {
+
+    private Settings() {
+    }
+
+    public static String getString(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (StringUtils.isBlank(value)) {
+            value = System.getenv(name);
+        }
+        return StringUtils.isBlank(value) ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + name + " must be an integer but was " + value, e);
+        }
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + name + " must be a number but was " + value, e);
+        }
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = getString(name, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,23 @@
+package ata.unit.three.project.config;
+
+/**
+ * How the service sorts a user's lists. Lambda allots vCPUs in proportion to memory, so the
+ * default parallelism follows whatever the container was given.
+ */
+public final class SortSettings {
+
+    static final String PARALLELISM = "EXPENSE_SORT_PARALLELISM";
+    static final String SEQUENTIAL_CUTOFF = "EXPENSE_SORT_SEQUENTIAL_CUTOFF";
+
+    private SortSettings() {
+    }
+
+    public static int parallelism() {
+        return Settings.getInt(PARALLELISM, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Expenses across all of a user's lists below which sorting stays on the calling thread.
+    public static int sequentialCutoff() {
+        return Settings.getInt(SEQUENTIAL_CUTOFF, 4096);
+    }
+}
@@ -0,0 +1,60 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps background jobs under a capacity-units-per-second budget so they leave the table's
+ * throughput to the API. Callers report what each request consumed (from
+ * {@code ReturnConsumedCapacity}) and are held back until the budget has caught up. Up to one
+ * second of unused budget can be spent in a burst.
+ */
+public final class CapacityBudget {
+
+    /**
+     * How the budget waits; tests swap in one that only advances a fake clock.
+     */
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    private final double unitsPerSecond;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+    private double available;
+    private long refilledAt;
+
+    public CapacityBudget(double unitsPerSecond) {
+        this(unitsPerSecond, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    CapacityBudget(double unitsPerSecond, LongSupplier nanoClock, Sleeper sleeper) {
+        if (unitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity budget must be positive");
+        }
+        this.unitsPerSecond = unitsPerSecond;
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+        this.available = unitsPerSecond;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Records units already consumed and blocks until the budget is no longer overdrawn.
+     */
+    public void consume(double units) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            available = Math.min(unitsPerSecond,
+                    available + (now - refilledAt) * unitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+            refilledAt = now;
+            available -= units;
+            waitNanos = available < 0 ? (long) (-available / unitsPerSecond * TimeUnit.SECONDS.toNanos(1)) : 0;
+        }
+        if (waitNanos > 0) {
+            sleeper.sleep(waitNanos);
+        }
+    }
+}
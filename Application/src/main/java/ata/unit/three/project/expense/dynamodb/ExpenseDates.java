@@ -0,0 +1,66 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The stored form of ExpenseDate. Every value has the same width (millisecond precision, UTC), so
+ * comparing the strings gives the same order as comparing the instants. That is what lets
+ * EmailDateIndex return a user's expenses newest first.
+ */
+public final class ExpenseDates {
+
+    public static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN).withZone(ZoneOffset.UTC);
+
+    private ExpenseDates() {
+    }
+
+    public static String format(Instant instant) {
+        return FORMATTER.format(instant);
+    }
+
+    public static String now() {
+        return format(Instant.now());
+    }
+
+    /**
+     * Brings a date from outside the service into the stored form. Accepts ISO-8601 instants and
+     * plain dates, which are taken as midnight UTC. Returns null for anything else.
+     */
+    public static String normalize(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return format(Instant.parse(trimmed));
+        } catch (DateTimeParseException e) {
+            // Not an instant; try a plain date below.
+        }
+        try {
+            return format(LocalDate.parse(trimmed).atStartOfDay(ZoneOffset.UTC).toInstant());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a stored ExpenseDate into epoch milliseconds. Values that are missing or not ISO-8601
+     * instants map to {@link Long#MIN_VALUE}, so they order before every real date.
+     */
+    public static long toEpochMillis(String expenseDate) {
+        if (expenseDate == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return Instant.parse(expenseDate).toEpochMilli();
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package ata.unit.three.project.expense.dynamodb;
 
+import ata.unit.three.project.codec.GenerateAttributeCodec;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexRangeKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
 
 @ExcludeFromJacocoGeneratedReport
 @DynamoDBTable(tableName = "Expense")
+@GenerateAttributeCodec
 public class ExpenseItem {
 
     private String id;
@@ -21,12 +24,13 @@ public class ExpenseItem {
         return this.id;
     }
 
-    @DynamoDBIndexHashKey(globalSecondaryIndexName = "EmailIndex", attributeName = "Email")
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = "EmailDateIndex", attributeName = "Email")
     public String getEmail() {
         return this.email;
     }
 
-    @DynamoDBAttribute(attributeName = "ExpenseDate")
+    // Always written through ExpenseDates so the index range key sorts chronologically.
+    @DynamoDBIndexRangeKey(globalSecondaryIndexName = "EmailDateIndex", attributeName = "ExpenseDate")
     public String getExpenseDate() {
         return this.expenseDate;
     }
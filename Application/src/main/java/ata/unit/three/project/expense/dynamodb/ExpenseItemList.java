@@ -1,21 +1,29 @@
 package ata.unit.three.project.expense.dynamodb;
 
+import ata.unit.three.project.codec.GenerateAttributeCodec;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @ExcludeFromJacocoGeneratedReport
 @DynamoDBTable(tableName = "ExpenseList")
+@GenerateAttributeCodec
 public class ExpenseItemList {
     private String id;
     private String title;
     private String email;
     private List<ExpenseItem> expenseItems;
+    // The stored membership; expenseItems is hydrated from it on read. Transient keeps it out of responses.
+    private transient Set<String> expenseIds;
+    // Bumped by every membership write, so a read-modify-write can tell whether it lost a race.
+    private transient Long version;
 
     @DynamoDBHashKey(attributeName = "Id")
     public String getId() {
@@ -44,6 +52,24 @@ public class ExpenseItemList {
         this.expenseItems = expenseItems;
     }
 
+    @DynamoDBAttribute(attributeName = "ExpenseIds")
+    public Set<String> getExpenseIds() {
+        return expenseIds;
+    }
+
+    public void setExpenseIds(Set<String> expenseIds) {
+        this.expenseIds = expenseIds;
+    }
+
+    @DynamoDBVersionAttribute(attributeName = "Version")
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @DynamoDBIndexHashKey(globalSecondaryIndexName = "EmailIndex", attributeName = "Email")
     public String getEmail() {
         return this.email;
@@ -0,0 +1,24 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import java.util.List;
+
+/**
+ * One page of a user's expenses. {@code nextToken} is null on the last page.
+ */
+public class ExpensePage {
+    private final List<ExpenseItem> items;
+    private final String nextToken;
+
+    public ExpensePage(List<ExpenseItem> items, String nextToken) {
+        this.items = items;
+        this.nextToken = nextToken;
+    }
+
+    public List<ExpenseItem> getItems() {
+        return items;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+}
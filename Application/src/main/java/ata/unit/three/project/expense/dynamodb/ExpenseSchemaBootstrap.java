@@ -0,0 +1,76 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import javax.inject.Inject;
+
+import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EMAIL_VERSION_TABLE_NAME;
+import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EXPENSE_LIST_TABLE_NAME;
+import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EXPENSE_TABLE_NAME;
+
+/**
+ * Creates the expense tables and EmailDateIndex if they are missing, waiting for the index to
+ * finish backfilling. This mutates the schema, so it only runs as a deploy-time command:
+ *
+ * <pre>
+ * ./gradlew :Application:runMain \
+ *     -PmainClass=ata.unit.three.project.expense.dynamodb.ExpenseSchemaBootstrap
+ * </pre>
+ *
+ * buildspec.yml and integrationspec.yml run it before the deploy and the integration tests.
+ * Containers only call {@link #verifySchema()}, which reads the schema and never changes it.
+ */
+@ExcludeFromJacocoGeneratedReport
+public class ExpenseSchemaBootstrap {
+
+    static final Logger log = LogManager.getLogger();
+
+    private static volatile boolean verified;
+
+    private final AmazonDynamoDB client;
+
+    @Inject
+    public ExpenseSchemaBootstrap(AmazonDynamoDB client) {
+        this.client = client;
+    }
+
+    public void ensureTables() throws InterruptedException {
+        if (!ExpenseTable.doesExpenseTableExist(client, EXPENSE_TABLE_NAME)) {
+            ExpenseTable.createExpenseTable(client);
+        }
+        if (!ExpenseTable.doesExpenseTableExist(client, EXPENSE_LIST_TABLE_NAME)) {
+            ExpenseTable.createExpenseListTable(client);
+        }
+        if (!ExpenseTable.doesExpenseTableExist(client, EMAIL_VERSION_TABLE_NAME)) {
+            ExpenseTable.createEmailVersionTable(client);
+        }
+        ExpenseTable.ensureEmailDateIndex(client);
+    }
+
+    /**
+     * Fails with an IllegalStateException naming every table or index that is missing or not yet
+     * ACTIVE, which means the deploy-time bootstrap has not run. Checked at most once per container.
+     */
+    public void verifySchema() {
+        if (verified) {
+            return;
+        }
+        List<String> problems = ExpenseTable.schemaProblems(client);
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Expense schema is not ready (" + String.join(", ", problems)
+                    + "); run ExpenseSchemaBootstrap before deploying");
+        }
+        verified = true;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        DaggerExpenseServiceComponent.create().schemaBootstrap().ensureTables();
+        log.info("Expense tables are ready");
+    }
+}
@@ -1,113 +1,595 @@
 package ata.unit.three.project.expense.dynamodb;
 
+import ata.unit.three.project.expense.repository.ExpenseRepository;
+import ata.unit.three.project.expense.repository.LoadedExpenses;
+import ata.unit.three.project.expense.repository.StatsLog;
+
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import javax.inject.Inject;
 
-import java.util.LinkedList;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EMAIL_DATE_INDEX;
 import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EXPENSE_LIST_TABLE_NAME;
 import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EXPENSE_TABLE_NAME;
 
-// NOTE: You do not need to change anything in this file to complete the project.
+// Items are converted with the generated *AttributeCodec classes and sent through the low-level
+// client, so no DynamoDBMapper reflection happens at runtime.
 @ExcludeFromJacocoGeneratedReport
-public class ExpenseServiceRepository {
+public class ExpenseServiceRepository implements ExpenseRepository {
+
+    static final Logger log = LogManager.getLogger();
 
-    AmazonDynamoDB client = AmazonDynamoDBClientBuilder.standard().build();
-    DynamoDBMapper mapper = new DynamoDBMapper(client);
+    static final String EMAIL_INDEX = "EmailIndex";
+    private static final int MAX_MEMBERSHIP_ATTEMPTS = 5;
+    private static final int BATCH_GET_LIMIT = 100;
+    private static final int MAX_BATCH_GET_ATTEMPTS = 8;
+    private static final long BASE_BACKOFF_MS = 25;
+    private static final long MAX_BACKOFF_MS = 1000;
+    private static final int BATCH_WRITE_LIMIT = 25;
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 8;
+    private static final int DEFAULT_BATCH_WRITE_PARALLELISM = 4;
 
+    private final AmazonDynamoDB client;
+    private final ExecutorService batchWriters;
+    private final LoadedExpenses loadedExpenses;
+    private final AtomicLong membershipConflicts = new AtomicLong();
+    private final AtomicLong membershipRetries = new AtomicLong();
+    private final AtomicLong membershipRetriesExhausted = new AtomicLong();
+    private final StatsLog membershipStatsLog = new StatsLog(StatsLog.DEFAULT_INTERVAL_MS);
+
+    // Tables are created by ExpenseSchemaBootstrap, never on the request path.
     @Inject
-    public ExpenseServiceRepository() {
-        if (!ExpenseTable.doesExpenseTableExist(EXPENSE_TABLE_NAME)) {
-            ExpenseTable.createExpenseTable();
-        }
+    public ExpenseServiceRepository(AmazonDynamoDB client) {
+        this(client, DEFAULT_BATCH_WRITE_PARALLELISM);
+    }
 
-        if (!ExpenseTable.doesExpenseTableExist(EXPENSE_LIST_TABLE_NAME)) {
-            ExpenseTable.createExpenseListTable();
-        }
+    public ExpenseServiceRepository(AmazonDynamoDB client, int batchWriteParallelism) {
+        this(client, batchWriteParallelism, LoadedExpenses.NONE);
+    }
+
+    public ExpenseServiceRepository(AmazonDynamoDB client, int batchWriteParallelism,
+                                    LoadedExpenses loadedExpenses) {
+        this.client = client;
+        this.loadedExpenses = loadedExpenses;
+        this.batchWriters = Executors.newFixedThreadPool(batchWriteParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "expense-batch-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
+    @Override
     public ExpenseItem getExpenseById(String expenseId) {
-        ExpenseItem item = mapper.load(ExpenseItem.class, expenseId);
-        return item;
+        Map<String, AttributeValue> item = client.getItem(new GetItemRequest()
+                .withTableName(EXPENSE_TABLE_NAME)
+                .withKey(idKey(expenseId))).getItem();
+        return ExpenseItemAttributeCodec.decode(item);
     }
 
+    @Override
     public List<ExpenseItem> getExpensesByEmail(String email) {
-        ExpenseItem expenseItem = new ExpenseItem();
-        expenseItem.setEmail(email);
+        List<ExpenseItem> expenses = new ArrayList<>();
+        for (Map<String, AttributeValue> item : queryAll(expensesByEmailQuery(email))) {
+            expenses.add(ExpenseItemAttributeCodec.decode(item));
+        }
+        return expenses;
+    }
 
-        DynamoDBQueryExpression<ExpenseItem> queryExpression = new DynamoDBQueryExpression<ExpenseItem>()
-                .withIndexName("EmailIndex").withConsistentRead(true)
-                .withHashKeyValues(expenseItem)
-                .withConsistentRead(false);
+    /**
+     * Returns at most {@code limit} of a user's expenses, continuing after {@code nextToken} if given.
+     *
+     * @throws IllegalArgumentException if nextToken is malformed or belongs to a different email
+     */
+    @Override
+    public ExpensePage getExpensesByEmail(String email, int limit, String nextToken) {
+        Map<String, AttributeValue> exclusiveStartKey = PageToken.decode(nextToken);
+        if (exclusiveStartKey != null) {
+            AttributeValue tokenEmail = exclusiveStartKey.get(ExpenseItemAttributeCodec.EMAIL);
+            if (tokenEmail == null || !email.equals(tokenEmail.getS())) {
+                throw new IllegalArgumentException("Page token does not belong to this query");
+            }
+        }
+        QueryResult result = client.query(expensesByEmailQuery(email)
+                .withLimit(limit)
+                .withExclusiveStartKey(exclusiveStartKey));
 
-        return mapper.query(ExpenseItem.class, queryExpression);
+        List<ExpenseItem> expenses = new ArrayList<>(result.getItems().size());
+        for (Map<String, AttributeValue> item : result.getItems()) {
+            expenses.add(ExpenseItemAttributeCodec.decode(item));
+        }
+        return new ExpensePage(expenses, PageToken.encode(result.getLastEvaluatedKey()));
     }
 
+    @Override
     public void createExpense(ExpenseItem expense) {
-        mapper.save(expense);
+        client.putItem(new PutItemRequest()
+                .withTableName(EXPENSE_TABLE_NAME)
+                .withItem(ExpenseItemAttributeCodec.encode(expense)));
     }
 
-    public void updateExpense(String expenseId, String title, Double amount) {
-        ExpenseItem item = mapper.load(ExpenseItem.class, expenseId);
-        item.setAmount(amount);
-        item.setTitle(title);
-        mapper.save(item);
+    /**
+     * Writes the expenses in BatchWriteItem chunks of 25, several chunks at a time. Items DynamoDB
+     * leaves unprocessed are retried with jittered backoff; those still unprocessed after the last
+     * attempt are returned.
+     */
+    @Override
+    public List<ExpenseItem> createExpenses(List<ExpenseItem> expenses) {
+        List<List<ExpenseItem>> chunks = new ArrayList<>();
+        for (int start = 0; start < expenses.size(); start += BATCH_WRITE_LIMIT) {
+            chunks.add(expenses.subList(start, Math.min(expenses.size(), start + BATCH_WRITE_LIMIT)));
+        }
+        if (chunks.size() <= 1) {
+            return chunks.isEmpty() ? Collections.emptyList() : batchWrite(chunks.get(0));
+        }
+
+        List<Future<List<ExpenseItem>>> writes = new ArrayList<>(chunks.size());
+        for (List<ExpenseItem> chunk : chunks) {
+            writes.add(batchWriters.submit(() -> batchWrite(chunk)));
+        }
+        List<ExpenseItem> unwritten = new ArrayList<>();
+        for (Future<List<ExpenseItem>> write : writes) {
+            unwritten.addAll(await(write));
+        }
+        return unwritten;
+    }
+
+    /**
+     * Applies the non-null fields to an existing expense in a single UpdateItem call.
+     * Returns the updated expense, or null if no expense exists with the given id.
+     */
+    @Override
+    public ExpenseItem updateExpense(String expenseId, String title, Double amount) {
+        List<String> assignments = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        names.put("#id", ExpenseItemAttributeCodec.ID);
+        if (title != null && !title.isEmpty()) {
+            assignments.add("#title = :title");
+            names.put("#title", ExpenseItemAttributeCodec.TITLE);
+            values.put(":title", new AttributeValue(title));
+        }
+        if (amount != null) {
+            assignments.add("#amount = :amount");
+            names.put("#amount", ExpenseItemAttributeCodec.AMOUNT);
+            values.put(":amount", new AttributeValue().withN(BigDecimal.valueOf(amount).toPlainString()));
+        }
+        if (assignments.isEmpty()) {
+            return getExpenseById(expenseId);
+        }
+
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(EXPENSE_TABLE_NAME)
+                .withKey(idKey(expenseId))
+                .withUpdateExpression("SET " + String.join(", ", assignments))
+                .withConditionExpression("attribute_exists(#id)")
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values)
+                .withReturnValues(ReturnValue.ALL_NEW);
+        try {
+            return ExpenseItemAttributeCodec.decode(client.updateItem(request).getAttributes());
+        } catch (ConditionalCheckFailedException e) {
+            return null;
+        }
     }
 
-    public void deleteExpense(String expenseId) {
-        ExpenseItem item = mapper.load(ExpenseItem.class, expenseId);
-        mapper.delete(item);
+    /**
+     * Deletes an expense in a single conditional DeleteItem call.
+     * Returns the deleted expense, or null if no expense exists with the given id.
+     */
+    @Override
+    public ExpenseItem deleteExpense(String expenseId) {
+        DeleteItemRequest request = new DeleteItemRequest()
+                .withTableName(EXPENSE_TABLE_NAME)
+                .withKey(idKey(expenseId))
+                .withConditionExpression("attribute_exists(#id)")
+                .withExpressionAttributeNames(Collections.singletonMap("#id", ExpenseItemAttributeCodec.ID))
+                .withReturnValues(ReturnValue.ALL_OLD);
+        try {
+            return ExpenseItemAttributeCodec.decode(client.deleteItem(request).getAttributes());
+        } catch (ConditionalCheckFailedException e) {
+            return null;
+        }
     }
 
+    @Override
     public void createExpenseList(String expenseListId, String email, String title) {
         ExpenseItemList expenseItemList = new ExpenseItemList();
         expenseItemList.setId(expenseListId);
         expenseItemList.setEmail(email);
         expenseItemList.setTitle(title);
-        mapper.save(expenseItemList);
+        saveExpenseList(expenseItemList);
+    }
+
+    /**
+     * Adds an expense to a list in a single conditional UpdateItem. Lists only store the ids of their
+     * expenses, so the write is a set ADD that only happens when the list exists, belongs to the
+     * expense's email and does not already contain the expense.
+     * Returns the updated list without hydrated expenses, or null when any condition fails.
+     */
+    @Override
+    public ExpenseItemList addExpenseItemToList(String id, ExpenseItem item) {
+        Map<String, String> names = membershipNames();
+        names.put("#email", ExpenseItemListAttributeCodec.EMAIL);
+        Map<String, AttributeValue> values = membershipValues(item.getId());
+        values.put(":email", new AttributeValue(item.getEmail()));
+
+        return updateMembership(id, new UpdateItemRequest()
+                .withUpdateExpression("ADD #expenseIds :expenseIds, #version :one")
+                .withConditionExpression("attribute_exists(#id) AND attribute_not_exists(#expenses) "
+                        + "AND #email = :email AND NOT contains(#expenseIds, :expenseId)")
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values));
+    }
+
+    /**
+     * Removes an expense from a list in a single conditional UpdateItem without reading the list.
+     * Returns the updated list without hydrated expenses, or null when the list does not contain
+     * the expense.
+     */
+    @Override
+    public ExpenseItemList removeExpenseItemToList(String id, String expenseId) {
+        return updateMembership(id, new UpdateItemRequest()
+                .withUpdateExpression("DELETE #expenseIds :expenseIds ADD #version :one")
+                .withConditionExpression("attribute_exists(#id) AND attribute_not_exists(#expenses) "
+                        + "AND contains(#expenseIds, :expenseId)")
+                .withExpressionAttributeNames(membershipNames())
+                .withExpressionAttributeValues(membershipValues(expenseId)));
     }
 
-    public void addExpenseItemToList(String id, ExpenseItem item) {
-        ExpenseItemList list = mapper.load(ExpenseItemList.class, id);
-        if (list.getExpenseItems() == null) {
-            list.setExpenseItems(new LinkedList<>());
+    @Override
+    public List<ExpenseItemList> getExpenseListsByEmail(String email) {
+        List<ExpenseItemList> lists = new ArrayList<>();
+        for (Map<String, AttributeValue> item : queryAll(emailQuery(EXPENSE_LIST_TABLE_NAME, EMAIL_INDEX, email))) {
+            lists.add(ExpenseItemListAttributeCodec.decode(item));
         }
-        list.getExpenseItems().add(item);
-        mapper.save(list);
+        hydrate(lists);
+        return lists;
     }
 
-    public void removeExpenseItemToList(String id, ExpenseItem item) {
-        ExpenseItemList list = mapper.load(ExpenseItemList.class, id);
-        if (list.getExpenseItems() != null) {
-            list.getExpenseItems().remove(item);
-            mapper.save(list);
+    @Override
+    public ExpenseItemList getExpenseListById(String id) {
+        ExpenseItemList list = loadExpenseList(id);
+        if (list != null) {
+            hydrate(Collections.singletonList(list));
         }
+        return list;
     }
 
-    public List<ExpenseItemList> getExpenseListsByEmail(String email) {
-        ExpenseItemList expenseItemList = new ExpenseItemList();
-        expenseItemList.setEmail(email);
+    @Override
+    public ExpenseItemList getExpenseListSummaryById(String id) {
+        return loadExpenseList(id);
+    }
 
-        DynamoDBQueryExpression<ExpenseItemList> queryExpression = new DynamoDBQueryExpression<ExpenseItemList>()
-                .withIndexName("EmailIndex").withConsistentRead(true)
-                .withHashKeyValues(expenseItemList)
-                .withConsistentRead(false);
+    @Override
+    public void deleteExpenseItemList(String expenseListId) {
+        ExpenseItemList item = loadExpenseList(expenseListId);
+        client.deleteItem(new DeleteItemRequest()
+                .withTableName(EXPENSE_LIST_TABLE_NAME)
+                .withKey(idKey(item.getId())));
+    }
 
-        return mapper.query(ExpenseItemList.class, queryExpression);
+    private void saveExpenseList(ExpenseItemList list) {
+        list.setVersion(1L);
+        client.putItem(new PutItemRequest()
+                .withTableName(EXPENSE_LIST_TABLE_NAME)
+                .withItem(ExpenseItemListAttributeCodec.encode(list))
+                .withConditionExpression("attribute_not_exists(#id)")
+                .withExpressionAttributeNames(Collections.singletonMap("#id", ExpenseItemListAttributeCodec.ID)));
     }
 
-    public ExpenseItemList getExpenseListById(String id) {
-        ExpenseItemList item = mapper.load(ExpenseItemList.class, id);
-        return item;
+    private ExpenseItemList loadExpenseList(String id) {
+        Map<String, AttributeValue> item = client.getItem(new GetItemRequest()
+                .withTableName(EXPENSE_LIST_TABLE_NAME)
+                .withKey(idKey(id))).getItem();
+        return ExpenseItemListAttributeCodec.decode(item);
     }
 
-    public void deleteExpenseItemList(String expenseListId) {
-        ExpenseItemList item = mapper.load(ExpenseItemList.class, expenseListId);
-        mapper.delete(item);
+    /**
+     * Membership writes are set ADD/DELETE, so concurrent writers to one list never overwrite each
+     * other. A rejected write is retried only when the list still embeds whole expenses and has to be
+     * converted first; if another writer converts it in between, the retry waits a jittered backoff.
+     */
+    private ExpenseItemList updateMembership(String id, UpdateItemRequest request) {
+        request.withTableName(EXPENSE_LIST_TABLE_NAME)
+                .withKey(idKey(id))
+                .withReturnValues(ReturnValue.ALL_NEW);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return ExpenseItemListAttributeCodec.decode(client.updateItem(request).getAttributes());
+            } catch (ConditionalCheckFailedException e) {
+                Conversion conversion = convertEmbeddedExpenses(id);
+                if (conversion == Conversion.NOT_NEEDED) {
+                    return null;
+                }
+                if (attempt + 1 >= MAX_MEMBERSHIP_ATTEMPTS) {
+                    membershipRetriesExhausted.incrementAndGet();
+                    log.warn("Gave up on a membership change to list {} after {} attempts", id,
+                            MAX_MEMBERSHIP_ATTEMPTS);
+                    logMembershipStats();
+                    return null;
+                }
+                membershipRetries.incrementAndGet();
+                if (conversion == Conversion.CONFLICT) {
+                    membershipConflicts.incrementAndGet();
+                    backOff(attempt);
+                }
+                logMembershipStats();
+            }
+        }
+    }
+
+    /**
+     * Counts of version conflicts and retries on list membership writes since the container started.
+     */
+    public MembershipStats membershipStats() {
+        return new MembershipStats(membershipConflicts.get(), membershipRetries.get(),
+                membershipRetriesExhausted.get());
+    }
+
+    // The counters only move when a write is retried, so that is when they are logged.
+    private void logMembershipStats() {
+        if (membershipStatsLog.due()) {
+            log.info("List membership writes since start: {}", membershipStats());
+        }
+    }
+
+    private enum Conversion {
+        NOT_NEEDED,
+        CONVERTED,
+        CONFLICT
+    }
+
+    /**
+     * Lists written before membership was id-only embed full expense copies in the Expenses attribute.
+     * Folds those into the ExpenseIds set so the list can take id-only writes. The write only happens
+     * if the list's Version is still the one read, so it cannot undo a concurrent change.
+     */
+    private Conversion convertEmbeddedExpenses(String id) {
+        ExpenseItemList list = loadExpenseList(id);
+        if (list == null || list.getExpenseItems() == null) {
+            return Conversion.NOT_NEEDED;
+        }
+        Set<String> expenseIds = new HashSet<>();
+        for (ExpenseItem item : list.getExpenseItems()) {
+            expenseIds.add(item.getId());
+        }
+        Map<String, String> names = membershipNames();
+        names.remove("#id");
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":one", new AttributeValue().withN("1"));
+        String update = "ADD #version :one REMOVE #expenses";
+        if (!expenseIds.isEmpty()) {
+            update = "ADD #expenseIds :expenseIds, #version :one REMOVE #expenses";
+            values.put(":expenseIds", new AttributeValue().withSS(expenseIds));
+        } else {
+            names.remove("#expenseIds");
+        }
+        String condition = "attribute_not_exists(#version)";
+        if (list.getVersion() != null) {
+            condition = "#version = :version";
+            values.put(":version", new AttributeValue().withN(list.getVersion().toString()));
+        }
+        try {
+            client.updateItem(new UpdateItemRequest()
+                    .withTableName(EXPENSE_LIST_TABLE_NAME)
+                    .withKey(idKey(id))
+                    .withUpdateExpression(update)
+                    .withConditionExpression(condition)
+                    .withExpressionAttributeNames(names)
+                    .withExpressionAttributeValues(values));
+            return Conversion.CONVERTED;
+        } catch (ConditionalCheckFailedException e) {
+            // Someone else converted or changed it first; the retry sees their result.
+            return Conversion.CONFLICT;
+        }
+    }
+
+    /**
+     * Replaces each list's expense ids with the expenses themselves, fetched with BatchGetItem.
+     * Ids whose expense no longer exists are skipped. Lists never come back with null expenses.
+     */
+    private void hydrate(List<ExpenseItemList> lists) {
+        Set<String> expenseIds = new LinkedHashSet<>();
+        for (ExpenseItemList list : lists) {
+            if (list.getExpenseIds() != null) {
+                expenseIds.addAll(list.getExpenseIds());
+            }
+        }
+        // Expenses this request has already loaded are reused rather than read again.
+        Map<String, ExpenseItem> expenses = new HashMap<>(loadedExpenses.get(expenseIds));
+        expenseIds.removeAll(expenses.keySet());
+        Map<String, ExpenseItem> fetched = batchGetExpenses(expenseIds);
+        loadedExpenses.remember(fetched.values());
+        expenses.putAll(fetched);
+        for (ExpenseItemList list : lists) {
+            Map<String, ExpenseItem> expenseItems = new LinkedHashMap<>();
+            if (list.getExpenseItems() != null) {
+                for (ExpenseItem embedded : list.getExpenseItems()) {
+                    expenseItems.put(embedded.getId(), embedded);
+                }
+            }
+            if (list.getExpenseIds() != null) {
+                for (String expenseId : list.getExpenseIds()) {
+                    ExpenseItem expense = expenses.get(expenseId);
+                    if (expense != null) {
+                        expenseItems.put(expenseId, expense);
+                    }
+                }
+            }
+            list.setExpenseItems(new ArrayList<>(expenseItems.values()));
+        }
+    }
+
+    private Map<String, ExpenseItem> batchGetExpenses(Collection<String> expenseIds) {
+        Map<String, ExpenseItem> expenses = new HashMap<>();
+        List<Map<String, AttributeValue>> keys = new ArrayList<>();
+        for (String expenseId : expenseIds) {
+            keys.add(idKey(expenseId));
+            if (keys.size() == BATCH_GET_LIMIT) {
+                batchGet(keys, expenses);
+                keys = new ArrayList<>();
+            }
+        }
+        if (!keys.isEmpty()) {
+            batchGet(keys, expenses);
+        }
+        return expenses;
+    }
+
+    private void batchGet(List<Map<String, AttributeValue>> keys, Map<String, ExpenseItem> expenses) {
+        Map<String, KeysAndAttributes> requestItems = new HashMap<>();
+        requestItems.put(EXPENSE_TABLE_NAME, new KeysAndAttributes().withKeys(keys));
+        for (int attempt = 0; ; attempt++) {
+            BatchGetItemResult result = client.batchGetItem(new BatchGetItemRequest().withRequestItems(requestItems));
+            List<Map<String, AttributeValue>> items = result.getResponses().get(EXPENSE_TABLE_NAME);
+            if (items != null) {
+                for (Map<String, AttributeValue> item : items) {
+                    ExpenseItem expense = ExpenseItemAttributeCodec.decode(item);
+                    expenses.put(expense.getId(), expense);
+                }
+            }
+            requestItems = result.getUnprocessedKeys();
+            if (requestItems == null || requestItems.isEmpty()) {
+                return;
+            }
+            if (attempt + 1 >= MAX_BATCH_GET_ATTEMPTS) {
+                throw new IllegalStateException("BatchGetItem left keys unprocessed after "
+                        + MAX_BATCH_GET_ATTEMPTS + " attempts");
+            }
+            backOff(attempt);
+        }
+    }
+
+    private List<ExpenseItem> batchWrite(List<ExpenseItem> chunk) {
+        Map<String, ExpenseItem> byId = new HashMap<>();
+        List<WriteRequest> puts = new ArrayList<>(chunk.size());
+        for (ExpenseItem expense : chunk) {
+            byId.put(expense.getId(), expense);
+            puts.add(new WriteRequest(new PutRequest(ExpenseItemAttributeCodec.encode(expense))));
+        }
+        Map<String, List<WriteRequest>> requestItems = Collections.singletonMap(EXPENSE_TABLE_NAME, puts);
+        for (int attempt = 0; ; attempt++) {
+            requestItems = client.batchWriteItem(new BatchWriteItemRequest().withRequestItems(requestItems))
+                    .getUnprocessedItems();
+            if (requestItems == null || requestItems.isEmpty()) {
+                return Collections.emptyList();
+            }
+            if (attempt + 1 >= MAX_BATCH_WRITE_ATTEMPTS) {
+                List<ExpenseItem> unwritten = new ArrayList<>();
+                for (WriteRequest request : requestItems.get(EXPENSE_TABLE_NAME)) {
+                    AttributeValue id = request.getPutRequest().getItem().get(ExpenseItemAttributeCodec.ID);
+                    unwritten.add(byId.get(id.getS()));
+                }
+                return unwritten;
+            }
+            backOff(attempt);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for BatchWriteItem", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void backOff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a batch request", e);
+        }
+    }
+
+    private static Map<String, String> membershipNames() {
+        Map<String, String> names = new HashMap<>();
+        names.put("#id", ExpenseItemListAttributeCodec.ID);
+        names.put("#expenses", ExpenseItemListAttributeCodec.EXPENSE_ITEMS);
+        names.put("#expenseIds", ExpenseItemListAttributeCodec.EXPENSE_IDS);
+        names.put("#version", ExpenseItemListAttributeCodec.VERSION);
+        return names;
+    }
+
+    private static Map<String, AttributeValue> membershipValues(String expenseId) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":expenseId", new AttributeValue(expenseId));
+        values.put(":expenseIds", new AttributeValue().withSS(expenseId));
+        values.put(":one", new AttributeValue().withN("1"));
+        return values;
+    }
+
+    // Newest first: EmailDateIndex is sorted by the fixed-width ExpenseDate.
+    private static QueryRequest expensesByEmailQuery(String email) {
+        return emailQuery(EXPENSE_TABLE_NAME, EMAIL_DATE_INDEX, email).withScanIndexForward(false);
+    }
+
+    private static QueryRequest emailQuery(String tableName, String indexName, String email) {
+        return new QueryRequest()
+                .withTableName(tableName)
+                .withIndexName(indexName)
+                .withKeyConditionExpression("#email = :email")
+                .withExpressionAttributeNames(Collections.singletonMap("#email", ExpenseItemAttributeCodec.EMAIL))
+                .withExpressionAttributeValues(Collections.singletonMap(":email", new AttributeValue(email)))
+                .withConsistentRead(false);
+    }
+
+    private List<Map<String, AttributeValue>> queryAll(QueryRequest request) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        do {
+            QueryResult result = client.query(request.withExclusiveStartKey(lastEvaluatedKey));
+            items.addAll(result.getItems());
+            lastEvaluatedKey = result.getLastEvaluatedKey();
+        } while (lastEvaluatedKey != null && !lastEvaluatedKey.isEmpty());
+        return items;
+    }
+
+    static Map<String, AttributeValue> idKey(String id) {
+        return Collections.singletonMap(ExpenseItemAttributeCodec.ID, new AttributeValue(id));
     }
 }
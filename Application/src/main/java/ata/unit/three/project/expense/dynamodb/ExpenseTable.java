@@ -2,18 +2,24 @@ package ata.unit.three.project.expense.dynamodb;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.CreateGlobalSecondaryIndexAction;
 import com.amazonaws.services.dynamodbv2.model.CreateTableResult;
 import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndex;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexUpdate;
+import com.amazonaws.services.dynamodbv2.model.IndexStatus;
 import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
 import com.amazonaws.services.dynamodbv2.model.KeyType;
-import com.amazonaws.services.dynamodbv2.model.ListTablesResult;
 import com.amazonaws.services.dynamodbv2.model.Projection;
 import com.amazonaws.services.dynamodbv2.model.ProjectionType;
 import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
 import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TableStatus;
+import com.amazonaws.services.dynamodbv2.model.UpdateTableRequest;
 import com.amazonaws.services.dynamodbv2.util.TableUtils;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
 import org.apache.logging.log4j.LogManager;
@@ -21,16 +27,23 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @ExcludeFromJacocoGeneratedReport
 public class ExpenseTable {
     public static String EXPENSE_TABLE_NAME = "Expense";
     public static String EXPENSE_LIST_TABLE_NAME = "ExpenseList";
+    public static String EMAIL_VERSION_TABLE_NAME = "ExpenseEmailVersion";
+    public static final String EMAIL_DATE_INDEX = "EmailDateIndex";
     static final Logger log = LogManager.getLogger();
-    static final AmazonDynamoDB ddb = AmazonDynamoDBClientBuilder.defaultClient();
+    private static final long INDEX_POLL_INTERVAL_MS = 5000;
+    // Tables only ever go from missing to existing while a container is alive, so a positive
+    // answer is safe to keep for the life of the JVM.
+    private static final Set<String> EXISTING_TABLES = ConcurrentHashMap.newKeySet();
 
     @ExcludeFromJacocoGeneratedReport
-    public static void createExpenseTable() {
+    public static void createExpenseTable(AmazonDynamoDB ddb) {
         final String USAGE = "\n" +
                 "Usage:\n" +
                 "    CreateTable <table>\n\n" +
@@ -44,32 +57,18 @@ public class ExpenseTable {
                 "Creating table \"%s\" with a simple primary key: \"email\".\n",
                 EXPENSE_TABLE_NAME);
 
-        GlobalSecondaryIndex emailIndex = new GlobalSecondaryIndex()
-                .withIndexName("EmailIndex")
-                .withProvisionedThroughput(new ProvisionedThroughput()
-                        .withReadCapacityUnits((long) 10)
-                        .withWriteCapacityUnits((long) 1))
-                .withProjection(new Projection().withProjectionType(ProjectionType.ALL));
-
-
-        ArrayList<KeySchemaElement> indexKeySchema = new ArrayList<>();
-        indexKeySchema.add(new KeySchemaElement()
-                .withAttributeName("Email")
-                .withKeyType(KeyType.HASH));
-
-        emailIndex.setKeySchema(indexKeySchema);
-
         CreateTableRequest request = new CreateTableRequest()
                 .withAttributeDefinitions(
                         new AttributeDefinition("Id", ScalarAttributeType.S),
-                        new AttributeDefinition("Email", ScalarAttributeType.S)
+                        new AttributeDefinition("Email", ScalarAttributeType.S),
+                        new AttributeDefinition("ExpenseDate", ScalarAttributeType.S)
                 )
                 .withKeySchema(
                         new KeySchemaElement("Id", KeyType.HASH)
                 )
                 .withProvisionedThroughput(new ProvisionedThroughput(
                         10L, 10L))
-                .withGlobalSecondaryIndexes(emailIndex)
+                .withGlobalSecondaryIndexes(emailDateIndex())
                 .withTableName(EXPENSE_TABLE_NAME);
 
         try {
@@ -81,7 +80,7 @@ public class ExpenseTable {
         }
     }
 
-    public static void createExpenseListTable() {
+    public static void createExpenseListTable(AmazonDynamoDB ddb) {
         final String USAGE = "\n" +
                 "Usage:\n" +
                 "    CreateTable <table>\n\n" +
@@ -133,15 +132,132 @@ public class ExpenseTable {
         }
     }
 
-    public static boolean doesExpenseTableExist(String table) {
-        ListTablesResult tables = ddb.listTables();
-        List<String> tableNames = tables.getTableNames();
+    /**
+     * One small item per email holding the version that query-result caches compare against.
+     */
+    public static void createEmailVersionTable(AmazonDynamoDB ddb) {
+        log.info("Creating table {}", EMAIL_VERSION_TABLE_NAME);
+
+        CreateTableRequest request = new CreateTableRequest()
+                .withAttributeDefinitions(new AttributeDefinition("Email", ScalarAttributeType.S))
+                .withKeySchema(new KeySchemaElement("Email", KeyType.HASH))
+                .withProvisionedThroughput(new ProvisionedThroughput(10L, 10L))
+                .withTableName(EMAIL_VERSION_TABLE_NAME);
+
+        try {
+            CreateTableResult result = ddb.createTable(request);
+            log.info(result.getTableDescription().getTableName());
+            TableUtils.waitUntilActive(ddb, EMAIL_VERSION_TABLE_NAME);
+        } catch (AmazonServiceException | InterruptedException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Expenses by email, newest first. Replaces the hash-only EmailIndex on the Expense table.
+     */
+    static GlobalSecondaryIndex emailDateIndex() {
+        return new GlobalSecondaryIndex()
+                .withIndexName(EMAIL_DATE_INDEX)
+                .withKeySchema(
+                        new KeySchemaElement("Email", KeyType.HASH),
+                        new KeySchemaElement("ExpenseDate", KeyType.RANGE))
+                .withProvisionedThroughput(new ProvisionedThroughput()
+                        .withReadCapacityUnits((long) 10)
+                        .withWriteCapacityUnits((long) 1))
+                .withProjection(new Projection().withProjectionType(ProjectionType.ALL));
+    }
+
+    /**
+     * Adds EmailDateIndex to an Expense table created before the index existed, then waits for
+     * DynamoDB to finish backfilling it. The backfill can take far longer than a Lambda init, so
+     * this is only called from the deploy-time ExpenseSchemaBootstrap command.
+     */
+    public static void ensureEmailDateIndex(AmazonDynamoDB ddb) throws InterruptedException {
+        if (indexStatus(ddb, EXPENSE_TABLE_NAME, EMAIL_DATE_INDEX) == null) {
+            log.info("Adding index {} to table {}", EMAIL_DATE_INDEX, EXPENSE_TABLE_NAME);
+            GlobalSecondaryIndex index = emailDateIndex();
+            ddb.updateTable(new UpdateTableRequest()
+                    .withTableName(EXPENSE_TABLE_NAME)
+                    .withAttributeDefinitions(
+                            new AttributeDefinition("Email", ScalarAttributeType.S),
+                            new AttributeDefinition("ExpenseDate", ScalarAttributeType.S))
+                    .withGlobalSecondaryIndexUpdates(new GlobalSecondaryIndexUpdate()
+                            .withCreate(new CreateGlobalSecondaryIndexAction()
+                                    .withIndexName(index.getIndexName())
+                                    .withKeySchema(index.getKeySchema())
+                                    .withProjection(index.getProjection())
+                                    .withProvisionedThroughput(index.getProvisionedThroughput()))));
+        }
+        while (!IndexStatus.ACTIVE.toString().equals(indexStatus(ddb, EXPENSE_TABLE_NAME, EMAIL_DATE_INDEX))) {
+            Thread.sleep(INDEX_POLL_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * Read-only schema check for containers: one DescribeTable call per table. Returns every table
+     * that is missing or not ACTIVE, and EmailDateIndex if it is missing or still backfilling.
+     */
+    public static List<String> schemaProblems(AmazonDynamoDB ddb) {
+        List<String> problems = new ArrayList<>();
+        for (String table : new String[] {EXPENSE_TABLE_NAME, EXPENSE_LIST_TABLE_NAME, EMAIL_VERSION_TABLE_NAME}) {
+            TableDescription description;
+            try {
+                description = ddb.describeTable(table).getTable();
+            } catch (ResourceNotFoundException e) {
+                problems.add("table " + table + " is missing");
+                continue;
+            }
+            if (!TableStatus.ACTIVE.toString().equals(description.getTableStatus())) {
+                problems.add("table " + table + " is " + description.getTableStatus());
+            }
+            if (EXPENSE_TABLE_NAME.equals(table)) {
+                String status = indexStatus(description, EMAIL_DATE_INDEX);
+                if (!IndexStatus.ACTIVE.toString().equals(status)) {
+                    problems.add("index " + EMAIL_DATE_INDEX + " on table " + table + " is "
+                            + (status == null ? "missing" : status));
+                }
+            }
+        }
+        return problems;
+    }
+
+    private static String indexStatus(AmazonDynamoDB ddb, String table, String indexName) {
+        return indexStatus(ddb.describeTable(table).getTable(), indexName);
+    }
 
-        for (String tableName : tableNames) {
-            if (tableName.equalsIgnoreCase(table)) {
-                return true;
+    private static String indexStatus(TableDescription table, String indexName) {
+        List<GlobalSecondaryIndexDescription> indexes = table.getGlobalSecondaryIndexes();
+        if (indexes != null) {
+            for (GlobalSecondaryIndexDescription index : indexes) {
+                if (indexName.equals(index.getIndexName())) {
+                    return index.getIndexStatus();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks a single table with DescribeTable rather than paging through ListTables. A table that
+     * is still being created counts as existing once it becomes active.
+     */
+    public static boolean doesExpenseTableExist(AmazonDynamoDB ddb, String table) {
+        if (EXISTING_TABLES.contains(table)) {
+            return true;
+        }
+        try {
+            String status = ddb.describeTable(table).getTable().getTableStatus();
+            if (TableStatus.CREATING.toString().equals(status)) {
+                TableUtils.waitUntilActive(ddb, table);
             }
+        } catch (ResourceNotFoundException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
-        return false;
+        EXISTING_TABLES.add(table);
+        return true;
     }
 }
@@ -0,0 +1,35 @@
+package ata.unit.three.project.expense.dynamodb;
+
+/**
+ * A snapshot of the list membership write counters since the container started. Conflicts are
+ * version-checked writes that lost to a concurrent writer; exhausted counts changes given up on
+ * after the last retry.
+ */
+public class MembershipStats {
+    private final long conflicts;
+    private final long retries;
+    private final long retriesExhausted;
+
+    public MembershipStats(long conflicts, long retries, long retriesExhausted) {
+        this.conflicts = conflicts;
+        this.retries = retries;
+        this.retriesExhausted = retriesExhausted;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public long getRetriesExhausted() {
+        return retriesExhausted;
+    }
+
+    @Override
+    public String toString() {
+        return "conflicts=" + conflicts + " retries=" + retries + " retriesExhausted=" + retriesExhausted;
+    }
+}
@@ -0,0 +1,66 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns a query's LastEvaluatedKey into an opaque, URL-safe token and back. Only string key
+ * attributes are supported, which covers every key and index in the expense tables.
+ */
+public final class PageToken {
+
+    private static final Gson GSON = new Gson();
+    private static final Type KEY_TYPE = new TypeToken<Map<String, String>>() { }.getType();
+
+    private PageToken() {
+    }
+
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> key = new HashMap<>();
+        for (Map.Entry<String, AttributeValue> entry : lastEvaluatedKey.entrySet()) {
+            if (entry.getValue().getS() == null) {
+                throw new IllegalArgumentException("Key attribute " + entry.getKey() + " is not a string");
+            }
+            key.put(entry.getKey(), entry.getValue().getS());
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(GSON.toJson(key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode(Map)}
+     */
+    public static Map<String, AttributeValue> decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        Map<String, String> key;
+        try {
+            key = GSON.fromJson(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8), KEY_TYPE);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Malformed page token", e);
+        }
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Malformed page token");
+        }
+        Map<String, AttributeValue> exclusiveStartKey = new HashMap<>();
+        for (Map.Entry<String, String> entry : key.entrySet()) {
+            if (entry.getValue() == null) {
+                throw new IllegalArgumentException("Malformed page token");
+            }
+            exclusiveStartKey.put(entry.getKey(), new AttributeValue(entry.getValue()));
+        }
+        return exclusiveStartKey;
+    }
+}
@@ -0,0 +1,41 @@
+package ata.unit.three.project.expense.export;
+
+import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
+
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+
+/**
+ * Runs an export from the command line:
+ *
+ * <pre>
+ * ./gradlew :Application:runMain \
+ *     -PmainClass=ata.unit.three.project.expense.export.ExpenseExportCommand \
+ *     -Pargs="all csv s3://bucket/nightly"
+ * </pre>
+ *
+ * The first argument is {@code all} for the whole table or an email address for one user, the
+ * second the format ({@code ndjson} or {@code csv}), and the third a directory or S3 prefix.
+ */
+@ExcludeFromJacocoGeneratedReport
+public class ExpenseExportCommand {
+
+    static final Logger log = LogManager.getLogger();
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            throw new IllegalArgumentException(
+                    "Usage: ExpenseExportCommand <all | email> <ndjson | csv> <directory | s3://bucket/prefix>");
+        }
+        ExportFormat format = ExportFormat.valueOf(args[1].toUpperCase(Locale.ROOT));
+        ExpenseExporter exporter = DaggerExpenseServiceComponent.create().expenseExporter();
+
+        ExportResult result = "all".equals(args[0])
+                ? exporter.exportTable(format, args[2])
+                : exporter.exportEmail(args[0], format, args[2]);
+        log.info("Exported to {}: {}", args[2], result);
+    }
+}
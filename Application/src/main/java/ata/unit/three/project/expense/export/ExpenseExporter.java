@@ -0,0 +1,209 @@
+package ata.unit.three.project.expense.export;
+
+import ata.unit.three.project.config.ExportSettings;
+import ata.unit.three.project.expense.dynamodb.CapacityBudget;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemAttributeCodec;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3URI;
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EMAIL_DATE_INDEX;
+import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EXPENSE_TABLE_NAME;
+
+/**
+ * Exports expenses to gzipped NDJSON or CSV. The whole table is read with a parallel Scan, one
+ * thread and one part file per segment; a single user's expenses come from one EmailDateIndex
+ * query. Every page is written out as soon as it arrives, so memory holds one page per segment,
+ * and all segments share one {@link CapacityBudget} of read units per second.
+ *
+ * <p>A target is a local directory or an {@code s3://bucket/prefix}. For S3 each part is written to
+ * a temporary file and uploaded once complete.
+ */
+@ExcludeFromJacocoGeneratedReport
+public class ExpenseExporter {
+
+    static final Logger log = LogManager.getLogger();
+
+    private final AmazonDynamoDB client;
+    private final Provider<AmazonS3> s3;
+
+    @Inject
+    public ExpenseExporter(AmazonDynamoDB client, Provider<AmazonS3> s3) {
+        this.client = client;
+        this.s3 = s3;
+    }
+
+    public ExportResult exportTable(ExportFormat format, String target) {
+        int segments = ExportSettings.segments();
+        CapacityBudget budget = new CapacityBudget(ExportSettings.readUnitsPerSecond());
+        ExecutorService pool = Executors.newFixedThreadPool(segments);
+        try {
+            List<Future<Part>> parts = new ArrayList<>(segments);
+            for (int segment = 0; segment < segments; segment++) {
+                int current = segment;
+                parts.add(pool.submit(() -> writePart(format, target, String.format("part-%04d", current),
+                        budget, startKey -> scanPage(current, segments, startKey))));
+            }
+            List<String> locations = new ArrayList<>(segments);
+            long expenses = 0;
+            for (Future<Part> part : parts) {
+                Part written = await(part);
+                locations.add(written.location);
+                expenses += written.expenses;
+            }
+            return new ExportResult(locations, expenses);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public ExportResult exportEmail(String email, ExportFormat format, String target) {
+        CapacityBudget budget = new CapacityBudget(ExportSettings.readUnitsPerSecond());
+        Part part = writePart(format, target, "part-0000", budget, startKey -> queryPage(email, startKey));
+        return new ExportResult(Collections.singletonList(part.location), part.expenses);
+    }
+
+    private Page scanPage(int segment, int segments, Map<String, AttributeValue> startKey) {
+        ScanResult result = client.scan(new ScanRequest()
+                .withTableName(EXPENSE_TABLE_NAME)
+                .withSegment(segment)
+                .withTotalSegments(segments)
+                .withLimit(ExportSettings.pageSize())
+                .withExclusiveStartKey(startKey)
+                .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+        return new Page(result.getItems(), result.getLastEvaluatedKey(), result.getConsumedCapacity());
+    }
+
+    private Page queryPage(String email, Map<String, AttributeValue> startKey) {
+        QueryResult result = client.query(new QueryRequest()
+                .withTableName(EXPENSE_TABLE_NAME)
+                .withIndexName(EMAIL_DATE_INDEX)
+                .withKeyConditionExpression("#email = :email")
+                .withExpressionAttributeNames(Collections.singletonMap("#email", ExpenseItemAttributeCodec.EMAIL))
+                .withExpressionAttributeValues(Collections.singletonMap(":email", new AttributeValue(email)))
+                .withLimit(ExportSettings.pageSize())
+                .withExclusiveStartKey(startKey)
+                .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+        return new Page(result.getItems(), result.getLastEvaluatedKey(), result.getConsumedCapacity());
+    }
+
+    private Part writePart(ExportFormat format, String target, String name, CapacityBudget budget, Pager pager) {
+        String fileName = name + "." + format.getExtension() + ".gz";
+        boolean toS3 = target.startsWith("s3://");
+        long expenses = 0;
+        try {
+            Path file;
+            if (toS3) {
+                file = Files.createTempFile(name, "." + format.getExtension() + ".gz");
+            } else {
+                Path directory = Files.createDirectories(Paths.get(target));
+                file = directory.resolve(fileName);
+            }
+
+            try (ExpenseRowWriter rows = format.open(new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024), StandardCharsets.UTF_8)))) {
+                Map<String, AttributeValue> startKey = null;
+                do {
+                    Page page = pager.fetch(startKey);
+                    for (Map<String, AttributeValue> item : page.items) {
+                        rows.write(ExpenseItemAttributeCodec.decode(item));
+                        expenses++;
+                    }
+                    budget.consume(page.capacityUnits);
+                    startKey = page.lastEvaluatedKey;
+                } while (startKey != null && !startKey.isEmpty());
+            }
+
+            if (!toS3) {
+                return new Part(file.toString(), expenses);
+            }
+            AmazonS3URI uri = new AmazonS3URI(target);
+            String prefix = uri.getKey() == null ? "" : uri.getKey().replaceAll("/+$", "");
+            String key = prefix.isEmpty() ? fileName : prefix + "/" + fileName;
+            s3.get().putObject(uri.getBucket(), key, file.toFile());
+            Files.delete(file);
+            return new Part("s3://" + uri.getBucket() + "/" + key, expenses);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while exporting " + name, e);
+        } finally {
+            log.info("{}: {} expenses", name, expenses);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while exporting", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Pager {
+        Page fetch(Map<String, AttributeValue> startKey);
+    }
+
+    private static final class Page {
+        private final List<Map<String, AttributeValue>> items;
+        private final Map<String, AttributeValue> lastEvaluatedKey;
+        private final double capacityUnits;
+
+        private Page(List<Map<String, AttributeValue>> items, Map<String, AttributeValue> lastEvaluatedKey,
+                     ConsumedCapacity consumedCapacity) {
+            this.items = items;
+            this.lastEvaluatedKey = lastEvaluatedKey;
+            this.capacityUnits = consumedCapacity == null || consumedCapacity.getCapacityUnits() == null
+                    ? 0 : consumedCapacity.getCapacityUnits();
+        }
+    }
+
+    private static final class Part {
+        private final String location;
+        private final long expenses;
+
+        private Part(String location, long expenses) {
+            this.location = location;
+            this.expenses = expenses;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ata.unit.three.project.expense.export;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes exported expenses one at a time to an underlying stream.
+ */
+public interface ExpenseRowWriter extends Closeable {
+
+    void write(ExpenseItem expense) throws IOException;
+}
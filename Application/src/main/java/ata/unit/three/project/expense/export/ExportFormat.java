@@ -0,0 +1,77 @@
+package ata.unit.three.project.expense.export;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.lambda.json.ResponseSerializer;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.opencsv.CSVWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The file formats an export can produce. Both write each expense as soon as it is read.
+ */
+public enum ExportFormat {
+
+    /**
+     * One JSON object per line, in the same shape the API returns.
+     */
+    NDJSON("ndjson") {
+        @Override
+        public ExpenseRowWriter open(Writer out) {
+            Gson gson = ResponseSerializer.gson();
+            return new ExpenseRowWriter() {
+                @Override
+                public void write(ExpenseItem expense) throws IOException {
+                    JsonWriter json = gson.newJsonWriter(out);
+                    gson.toJson(expense, ExpenseItem.class, json);
+                    out.write('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.close();
+                }
+            };
+        }
+    },
+
+    CSV("csv") {
+        @Override
+        public ExpenseRowWriter open(Writer out) {
+            CSVWriter csv = new CSVWriter(out);
+            csv.writeNext(new String[] {"id", "email", "expenseDate", "title", "amount"}, false);
+            return new ExpenseRowWriter() {
+                @Override
+                public void write(ExpenseItem expense) {
+                    csv.writeNext(new String[] {
+                        expense.getId(),
+                        expense.getEmail(),
+                        expense.getExpenseDate(),
+                        expense.getTitle(),
+                        expense.getAmount() == null ? null : expense.getAmount().toString()
+                    }, false);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    csv.close();
+                }
+            };
+        }
+    };
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public abstract ExpenseRowWriter open(Writer out);
+}
@@ -0,0 +1,30 @@
+package ata.unit.three.project.expense.export;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What an export wrote: the part files (local paths or S3 URIs) and the number of expenses.
+ */
+public class ExportResult {
+    private final List<String> parts;
+    private final long expenses;
+
+    public ExportResult(List<String> parts, long expenses) {
+        this.parts = Collections.unmodifiableList(parts);
+        this.expenses = expenses;
+    }
+
+    public List<String> getParts() {
+        return parts;
+    }
+
+    public long getExpenses() {
+        return expenses;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportResult{parts=" + parts.size() + ", expenses=" + expenses + '}';
+    }
+}
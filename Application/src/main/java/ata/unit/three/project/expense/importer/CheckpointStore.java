@@ -0,0 +1,15 @@
+package ata.unit.three.project.expense.importer;
+
+/**
+ * Where an import records how many data rows of its source are safely written, so a rerun can
+ * resume after them.
+ */
+public interface CheckpointStore {
+
+    /**
+     * Rows already imported, or 0 when the import has not started.
+     */
+    long load();
+
+    void save(long rows);
+}
@@ -0,0 +1,328 @@
+package ata.unit.three.project.expense.importer;
+
+import ata.unit.three.project.config.ImportSettings;
+import ata.unit.three.project.expense.dynamodb.ExpenseDates;
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.lambda.models.Expense;
+import ata.unit.three.project.expense.repository.ExpenseRepository;
+import ata.unit.three.project.expense.service.model.ExpenseItemConverter;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+
+/**
+ * Streams a CSV of expenses into the repository. The calling thread parses rows with opencsv and
+ * converts them through {@link ExpenseItemConverter}; a few writer threads take fixed-size batches
+ * off a bounded queue and write them with {@link ExpenseRepository#createExpenses}. Only the queued
+ * and in-flight batches are ever in memory.
+ *
+ * <p>The file needs a header row naming {@code email} and {@code amount} columns, and may name
+ * {@code title} and {@code date}. Each row's expense id is derived from the source and the row
+ * number, so rows written again after a resume overwrite themselves instead of duplicating.
+ */
+public class ExpenseCsvImporter {
+
+    static final Logger log = LogManager.getLogger();
+
+    private static final Batch END = new Batch(-1, -1, null);
+
+    private final ExpenseRepository repository;
+    private final ExpenseItemConverter converter;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int writers;
+    private final long checkpointIntervalRows;
+
+    @Inject
+    public ExpenseCsvImporter(ExpenseRepository repository, ExpenseItemConverter converter) {
+        this(repository, converter, ImportSettings.batchSize(), ImportSettings.queueCapacity(),
+                ImportSettings.writers(), ImportSettings.checkpointIntervalRows());
+    }
+
+    ExpenseCsvImporter(ExpenseRepository repository, ExpenseItemConverter converter, int batchSize,
+                       int queueCapacity, int writers, long checkpointIntervalRows) {
+        this.repository = repository;
+        this.converter = converter;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.writers = writers;
+        this.checkpointIntervalRows = checkpointIntervalRows;
+    }
+
+    /**
+     * Imports the data rows after the stored checkpoint. Checkpoints only ever cover rows whose
+     * batch, and every batch before it, has been written. A failed write stops the import.
+     *
+     * @param sourceId names the source in the derived expense ids, e.g. its S3 URI
+     */
+    public ImportResult importCsv(String sourceId, Reader csv, CheckpointStore checkpoints) {
+        long resumeAfter = checkpoints.load();
+        Progress progress = new Progress(checkpoints, checkpointIntervalRows, resumeAfter);
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService pool = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "expense-import-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long rows = 0;
+        long imported = 0;
+        long rejected = 0;
+        try (CSVReader reader = new CSVReaderBuilder(csv).build()) {
+            List<Future<Void>> tasks = new ArrayList<>(writers);
+            for (int i = 0; i < writers; i++) {
+                tasks.add(pool.submit(() -> write(queue, progress)));
+            }
+
+            String[] header = reader.readNext();
+            Columns columns = header == null ? null : Columns.of(header);
+            List<ExpenseItem> batch = new ArrayList<>(batchSize);
+            long sequence = 0;
+            String[] row;
+            while (columns != null && (row = reader.readNext()) != null) {
+                rows++;
+                if (rows <= resumeAfter) {
+                    continue;
+                }
+                ExpenseItem expense = toExpense(sourceId, rows, row, columns);
+                if (expense == null) {
+                    rejected++;
+                    log.warn("Rejected row {} of {}", rows, sourceId);
+                    continue;
+                }
+                batch.add(expense);
+                if (batch.size() == batchSize) {
+                    enqueue(queue, new Batch(sequence++, rows, batch), progress);
+                    imported += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                enqueue(queue, new Batch(sequence, rows, batch), progress);
+                imported += batch.size();
+            }
+
+            for (int i = 0; i < writers; i++) {
+                enqueue(queue, END, progress);
+            }
+            for (Future<Void> task : tasks) {
+                await(task);
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new IllegalStateException("Could not read " + sourceId + " after row " + rows, e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        progress.finish(rows);
+        return new ImportResult(Math.min(rows, resumeAfter), imported, rejected);
+    }
+
+    private Void write(BlockingQueue<Batch> queue, Progress progress) throws InterruptedException {
+        try {
+            for (Batch batch = queue.take(); batch != END; batch = queue.take()) {
+                List<ExpenseItem> unwritten = repository.createExpenses(batch.expenses);
+                if (!unwritten.isEmpty()) {
+                    throw new IllegalStateException(unwritten.size() + " expenses in the batch ending at row "
+                            + batch.endRow + " were not written");
+                }
+                progress.completed(batch);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            progress.fail(e);
+            throw e;
+        }
+    }
+
+    private ExpenseItem toExpense(String sourceId, long rowNumber, String[] row, Columns columns) {
+        String email = Columns.cell(row, columns.email);
+        Double amount = parseAmount(Columns.cell(row, columns.amount));
+        if (email == null || amount == null) {
+            return null;
+        }
+        String date = null;
+        if (columns.date >= 0 && Columns.cell(row, columns.date) != null) {
+            date = ExpenseDates.normalize(Columns.cell(row, columns.date));
+            if (date == null) {
+                return null;
+            }
+        }
+
+        ExpenseItem expense = converter.convert(new Expense(email, Columns.cell(row, columns.title), amount));
+        expense.setId(UUID.nameUUIDFromBytes((sourceId + "#" + rowNumber).getBytes(StandardCharsets.UTF_8))
+                .toString());
+        if (date != null) {
+            expense.setExpenseDate(date);
+        }
+        return expense;
+    }
+
+    private static Double parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            double amount = Double.parseDouble(value);
+            return Double.isNaN(amount) || Double.isInfinite(amount) ? null : amount;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Waits for queue space, but gives up as soon as a writer has failed.
+    private static void enqueue(BlockingQueue<Batch> queue, Batch batch, Progress progress) {
+        try {
+            while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                progress.rethrowFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing", e);
+        }
+        progress.rethrowFailure();
+    }
+
+    private static void await(Future<Void> task) {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Batch {
+        private final long sequence;
+        private final long endRow;
+        private final List<ExpenseItem> expenses;
+
+        private Batch(long sequence, long endRow, List<ExpenseItem> expenses) {
+            this.sequence = sequence;
+            this.endRow = endRow;
+            this.expenses = expenses;
+        }
+    }
+
+    private static final class Columns {
+        private final int email;
+        private final int title;
+        private final int amount;
+        private final int date;
+
+        private Columns(int email, int title, int amount, int date) {
+            this.email = email;
+            this.title = title;
+            this.amount = amount;
+            this.date = date;
+        }
+
+        static Columns of(String[] header) {
+            int email = -1;
+            int title = -1;
+            int amount = -1;
+            int date = -1;
+            for (int i = 0; i < header.length; i++) {
+                // Spreadsheet exports often start with a byte order mark.
+                String name = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                if ("email".equals(name)) {
+                    email = i;
+                } else if ("title".equals(name)) {
+                    title = i;
+                } else if ("amount".equals(name)) {
+                    amount = i;
+                } else if ("date".equals(name) || "expensedate".equals(name)) {
+                    date = i;
+                }
+            }
+            if (email < 0 || amount < 0) {
+                throw new IllegalArgumentException("CSV header must name email and amount columns");
+            }
+            return new Columns(email, title, amount, date);
+        }
+
+        static String cell(String[] row, int column) {
+            if (column < 0 || column >= row.length) {
+                return null;
+            }
+            String value = row[column].trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    /**
+     * Turns out-of-order batch completions into a contiguous count of written rows.
+     */
+    private static final class Progress {
+        private final CheckpointStore checkpoints;
+        private final long intervalRows;
+        private final TreeMap<Long, Long> completed = new TreeMap<>();
+        private long nextSequence;
+        private long writtenRows;
+        private long savedRows;
+        private volatile RuntimeException failure;
+
+        private Progress(CheckpointStore checkpoints, long intervalRows, long resumeAfter) {
+            this.checkpoints = checkpoints;
+            this.intervalRows = intervalRows;
+            this.writtenRows = resumeAfter;
+            this.savedRows = resumeAfter;
+        }
+
+        synchronized void completed(Batch batch) {
+            completed.put(batch.sequence, batch.endRow);
+            while (!completed.isEmpty() && completed.firstKey() == nextSequence) {
+                writtenRows = completed.pollFirstEntry().getValue();
+                nextSequence++;
+            }
+            if (writtenRows - savedRows >= intervalRows) {
+                checkpoints.save(writtenRows);
+                savedRows = writtenRows;
+            }
+        }
+
+        // Every batch is written by now, so trailing rejected rows are covered too.
+        synchronized void finish(long rows) {
+            if (rows > savedRows) {
+                checkpoints.save(rows);
+                savedRows = rows;
+            }
+        }
+
+        void fail(RuntimeException e) {
+            failure = e;
+        }
+
+        void rethrowFailure() {
+            RuntimeException e = failure;
+            if (e != null) {
+                throw new IllegalStateException("Import stopped after a failed write", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ata.unit.three.project.expense.importer;
+
+import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
+import ata.unit.three.project.expense.service.ExpenseServiceComponent;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3URI;
+import com.amazonaws.services.s3.model.S3Object;
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs a CSV import from the command line:
+ *
+ * <pre>
+ * ./gradlew :Application:runMain \
+ *     -PmainClass=ata.unit.three.project.expense.importer.ExpenseImportCommand \
+ *     -Pargs=s3://bucket/export.csv
+ * </pre>
+ *
+ * The source is an {@code s3://} URI or a local path. The checkpoint sits next to it with a
+ * {@code .checkpoint} suffix; rerunning the same command resumes from there, and a finished
+ * import leaves a checkpoint that makes a rerun a no-op.
+ */
+@ExcludeFromJacocoGeneratedReport
+public class ExpenseImportCommand {
+
+    static final Logger log = LogManager.getLogger();
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ExpenseImportCommand <s3://bucket/key | path>");
+        }
+        String source = args[0];
+        ExpenseServiceComponent component = DaggerExpenseServiceComponent.create();
+        ExpenseCsvImporter importer = component.expenseCsvImporter();
+
+        ImportResult result;
+        if (source.startsWith("s3://")) {
+            AmazonS3 s3 = component.amazonS3();
+            AmazonS3URI uri = new AmazonS3URI(source);
+            CheckpointStore checkpoints =
+                    new S3CheckpointStore(s3, uri.getBucket(), uri.getKey() + CHECKPOINT_SUFFIX);
+            try (S3Object object = s3.getObject(uri.getBucket(), uri.getKey());
+                 Reader reader = new BufferedReader(
+                         new InputStreamReader(object.getObjectContent(), StandardCharsets.UTF_8))) {
+                result = importer.importCsv(source, reader, checkpoints);
+            }
+        } else {
+            Path path = Paths.get(source);
+            CheckpointStore checkpoints =
+                    new FileCheckpointStore(path.resolveSibling(path.getFileName() + CHECKPOINT_SUFFIX));
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                result = importer.importCsv(path.toAbsolutePath().toString(), reader, checkpoints);
+            }
+        }
+        log.info("Imported {}: {}", source, result);
+    }
+}
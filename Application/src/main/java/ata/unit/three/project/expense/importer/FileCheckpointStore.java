@@ -0,0 +1,44 @@
+package ata.unit.three.project.expense.importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps the checkpoint in a local file. Each save replaces the file atomically, so a crash leaves
+ * either the old or the new count behind.
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private final Path file;
+
+    public FileCheckpointStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public long load() {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void save(long rows) {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(temporary, Long.toString(rows).getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
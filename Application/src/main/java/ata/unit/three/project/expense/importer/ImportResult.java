@@ -0,0 +1,33 @@
+package ata.unit.three.project.expense.importer;
+
+/**
+ * Row counts for one run of an import. Rows skipped on resume were written by an earlier run.
+ */
+public class ImportResult {
+    private final long skipped;
+    private final long imported;
+    private final long rejected;
+
+    public ImportResult(long skipped, long imported, long rejected) {
+        this.skipped = skipped;
+        this.imported = imported;
+        this.rejected = rejected;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{skipped=" + skipped + ", imported=" + imported + ", rejected=" + rejected + '}';
+    }
+}
@@ -0,0 +1,34 @@
+package ata.unit.three.project.expense.importer;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+
+/**
+ * Keeps the checkpoint in a small S3 object, for imports that run where there is no lasting disk.
+ */
+@ExcludeFromJacocoGeneratedReport
+public class S3CheckpointStore implements CheckpointStore {
+
+    private final AmazonS3 s3;
+    private final String bucket;
+    private final String key;
+
+    public S3CheckpointStore(AmazonS3 s3, String bucket, String key) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.key = key;
+    }
+
+    @Override
+    public long load() {
+        if (!s3.doesObjectExist(bucket, key)) {
+            return 0;
+        }
+        return Long.parseLong(s3.getObjectAsString(bucket, key).trim());
+    }
+
+    @Override
+    public void save(long rows) {
+        s3.putObject(bucket, key, Long.toString(rows));
+    }
+}
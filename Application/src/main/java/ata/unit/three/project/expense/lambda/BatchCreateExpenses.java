@@ -0,0 +1,55 @@
+package ata.unit.three.project.expense.lambda;
+
+import ata.unit.three.project.expense.lambda.models.Expense;
+import ata.unit.three.project.expense.lambda.runtime.ExpenseRequestHandler;
+import ata.unit.three.project.expense.lambda.runtime.HandlerRequest;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates a JSON array of expenses in one call and answers with their ids in the same order.
+ * When DynamoDB keeps throttling part of the batch the response is a 503 whose {@code ids} are
+ * null at the positions that were not written.
+ */
+@ExcludeFromJacocoGeneratedReport
+public class BatchCreateExpenses extends ExpenseRequestHandler {
+
+    static final Logger log = LogManager.getLogger();
+
+    @Override
+    protected APIGatewayProxyResponseEvent handle(HandlerRequest request) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        // InvalidDataException and malformed bodies are mapped to a 400 by the runtime's error middleware.
+        Expense[] expenses = request.body(Expense[].class);
+        List<String> ids = expenseService().createExpenses(expenses == null ? null : Arrays.asList(expenses));
+
+        int unwritten = 0;
+        for (String id : ids) {
+            if (id == null) {
+                unwritten++;
+            }
+        }
+        log.info("Created {} of {} expenses", ids.size() - unwritten, ids.size());
+        if (unwritten == 0) {
+            return response
+                    .withStatusCode(200)
+                    .withBody(toJson(ids));
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("errorType", "unprocessed_items");
+        payload.put("message", unwritten + " expenses were not written; resend the ones with a null id");
+        payload.put("ids", ids);
+        return response
+                .withStatusCode(503)
+                .withBody(toJson(payload));
+    }
+}
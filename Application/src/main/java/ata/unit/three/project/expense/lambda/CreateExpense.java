@@ -1,59 +1,35 @@
 package ata.unit.three.project.expense.lambda;
 
-import ata.unit.three.project.App;
 import ata.unit.three.project.expense.lambda.models.Expense;
-import ata.unit.three.project.expense.service.ExpenseService;
-import ata.unit.three.project.expense.service.ExpenseServiceComponent;
-import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
-import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import ata.unit.three.project.expense.lambda.runtime.ExpenseRequestHandler;
+import ata.unit.three.project.expense.lambda.runtime.HandlerRequest;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 @ExcludeFromJacocoGeneratedReport
-public class CreateExpense implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+public class CreateExpense extends ExpenseRequestHandler {
 
     static final Logger log = LogManager.getLogger();
 
     @Override
-    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
-
-        GsonBuilder builder = new GsonBuilder();
-        Gson gson = builder.create();
-        // Logging the request json to make debugging easier.
-        log.info(gson.toJson(input));
-
-//        ExpenseService expenseService = App.expenseService();
-        ExpenseServiceComponent dagger = DaggerExpenseServiceComponent.create();
-        ExpenseService expenseService = dagger.expenseService();
-
+    protected APIGatewayProxyResponseEvent handle(HandlerRequest request) {
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 
-        Expense expense = gson.fromJson(input.getBody(), Expense.class);
-        //String output = gson.toJson(expenseService.createExpense(expense));
-        // Your Code Here
-        try{
-            String id = expenseService.createExpense(expense);
+        Expense expense = request.body(Expense.class);
+        try {
+            String id = expenseService().createExpense(expense);
             log.info(id);
 
             return response
                     .withStatusCode(200)
                     .withBody(id);
-        } catch (Exception e){
+        } catch (Exception e) {
             log.info(expense);
 
             return response
                     .withStatusCode(400);
         }
-
-//        return response
-//                .withStatusCode(200)
-//                .withBody(output);
-
     }
 }
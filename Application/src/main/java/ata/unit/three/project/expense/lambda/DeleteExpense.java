@@ -1,52 +1,48 @@
 package ata.unit.three.project.expense.lambda;
 
-import ata.unit.three.project.App;
-import ata.unit.three.project.expense.lambda.models.Expense;
-import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
-import ata.unit.three.project.expense.service.ExpenseService;
-import ata.unit.three.project.expense.service.ExpenseServiceComponent;
-import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.lambda.runtime.ExpenseRequestHandler;
+import ata.unit.three.project.expense.lambda.runtime.HandlerRequest;
+import ata.unit.three.project.expense.service.exceptions.InvalidDataException;
+import ata.unit.three.project.expense.service.exceptions.ItemNotFoundException;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 @ExcludeFromJacocoGeneratedReport
-public class DeleteExpense implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+public class DeleteExpense extends ExpenseRequestHandler {
 
     static final Logger log = LogManager.getLogger();
 
-    @Override
-    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
-        GsonBuilder builder = new GsonBuilder();
-        Gson gson = builder.create();
-        // Logging the request json to make debugging easier.
-        log.info(gson.toJson(input));
+    // ?returnValues=ALL_OLD answers 200 with the deleted expense instead of an empty 204.
+    static final String RETURN_VALUES_PARAMETER = "returnValues";
+    static final String ALL_OLD = "ALL_OLD";
 
-        String expenseId = input.getPathParameters().get("expenseId");
+    @Override
+    protected APIGatewayProxyResponseEvent handle(HandlerRequest request) {
+        String expenseId = request.pathParameter("expenseId");
 
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 
-        // Your Code Here
-//        ExpenseService expenseService = App.expenseService();
-        ExpenseServiceComponent dagger = DaggerExpenseServiceComponent.create();
-        ExpenseService expenseService = dagger.expenseService();
-//        expenseService.deleteExpense(expenseId);
-//        return response
-//                .withStatusCode(204);
-//    }
         try {
-            expenseService.deleteExpense(expenseId);
+            ExpenseItem deleted = expenseService().deleteExpense(expenseId);
             log.info(expenseId);
 
+            if (ALL_OLD.equalsIgnoreCase(request.queryParameter(RETURN_VALUES_PARAMETER))) {
+                return response
+                        .withStatusCode(200)
+                        .withBody(toJson(deleted));
+            }
             return response
                     .withStatusCode(204)
                     .withBody(expenseId);
-        } catch (Exception e) {
+        } catch (ItemNotFoundException e) {
+            log.info(expenseId);
+
+            return response
+                    .withStatusCode(404);
+        } catch (InvalidDataException e) {
             log.info(expenseId);
 
             return response
@@ -1,55 +1,33 @@
 package ata.unit.three.project.expense.lambda;
 
-import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
-import ata.unit.three.project.expense.service.ExpenseService;
-import ata.unit.three.project.expense.service.ExpenseServiceComponent;
+import ata.unit.three.project.expense.lambda.runtime.ExpenseRequestHandler;
+import ata.unit.three.project.expense.lambda.runtime.HandlerRequest;
 import ata.unit.three.project.expense.service.exceptions.InvalidDataException;
 import ata.unit.three.project.expense.service.exceptions.ItemNotFoundException;
-import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 @ExcludeFromJacocoGeneratedReport
-public class RemoveExpenseItemFromList implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
-
-    static final Logger log = LogManager.getLogger();
+public class RemoveExpenseItemFromList extends ExpenseRequestHandler {
 
     @Override
-    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
-        GsonBuilder builder = new GsonBuilder();
-        Gson gson = builder.create();
-        // Logging the request json to make debugging easier.
-        log.info(gson.toJson(input));
-
+    protected APIGatewayProxyResponseEvent handle(HandlerRequest request) {
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
-        ExpenseServiceComponent dagger = DaggerExpenseServiceComponent.create();
-        ExpenseService expenseService = dagger.expenseService();
-        JsonObject object = new JsonParser().parse(input.getBody()).getAsJsonObject();
-        String expenseListId = object.get("expenseListId").getAsString();
-        String expenseItemId = object.get("expenseItemId").getAsString();
-
+        String expenseListId = request.bodyField("expenseListId");
+        String expenseItemId = request.bodyField("expenseItemId");
 
-        // Your Code Here...
         try {
-            expenseService.removeExpenseItemFromList(expenseListId, expenseItemId);
+            expenseService().removeExpenseItemFromList(expenseListId, expenseItemId);
             return response
                     .withStatusCode(204);
         } catch (InvalidDataException e) {
             return response
                     .withStatusCode(400)
-                    .withBody(gson.toJson(e.errorPayload()));
+                    .withBody(gson().toJson(e.errorPayload()));
         } catch (ItemNotFoundException e) {
             return response
                     .withStatusCode(400)
-                    .withBody(gson.toJson(e.errorPayload()));
+                    .withBody(gson().toJson(e.errorPayload()));
         }
     }
-}
\ No newline at end of file
+}
@@ -1,63 +1,25 @@
 package ata.unit.three.project.expense.lambda;
 
-import ata.unit.three.project.App;
-import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
-import ata.unit.three.project.expense.service.ExpenseService;
-import ata.unit.three.project.expense.service.exceptions.InvalidDataException;
-import ata.unit.three.project.expense.service.ExpenseServiceComponent;
+import ata.unit.three.project.expense.lambda.runtime.ExpenseRequestHandler;
+import ata.unit.three.project.expense.lambda.runtime.HandlerRequest;
 
-import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import java.util.HashMap;
-import java.util.Map;
 
 @ExcludeFromJacocoGeneratedReport
-public class RetrieveExpenseListsByEmail
-        implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
-
-
-    static final Logger log = LogManager.getLogger();
+public class RetrieveExpenseListsByEmail extends ExpenseRequestHandler {
 
     @Override
-    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
-        GsonBuilder builder = new GsonBuilder();
-        Gson gson = builder.create();
-
-        log.info(gson.toJson(input));
-
-
-//        ExpenseService expenseService = App.expenseService();
-        ExpenseServiceComponent dagger = DaggerExpenseServiceComponent.create();
-        ExpenseService expenseService = dagger.expenseService();
-
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-
-        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent()
-                .withHeaders(headers);
-
-        String email = input.getQueryStringParameters().get("email");
-
-        try {
-            String output = gson.toJson(expenseService.getExpenseListByEmail(email));
+    protected APIGatewayProxyResponseEvent handle(HandlerRequest request) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 
-            return response
-                    .withStatusCode(200)
-                    .withBody(output);
-        } catch (InvalidDataException e) {
-            return response
-                    .withStatusCode(400)
-                    .withBody(gson.toJson(e.errorPayload()));
-        }
+        String email = request.queryParameter("email");
 
+        // InvalidDataException is mapped to a 400 by the runtime's error middleware.
+        String output = toJson(expenseService().getExpenseListByEmail(email));
 
+        return response
+                .withStatusCode(200)
+                .withBody(output);
     }
 }
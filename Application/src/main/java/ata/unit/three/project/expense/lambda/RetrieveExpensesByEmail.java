@@ -1,64 +1,49 @@
 package ata.unit.three.project.expense.lambda;
 
-import ata.unit.three.project.App;
-import ata.unit.three.project.expense.lambda.models.Expense;
-import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
-import ata.unit.three.project.expense.service.ExpenseService;
-import ata.unit.three.project.expense.service.ExpenseServiceComponent;
-import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
+import ata.unit.three.project.expense.lambda.runtime.ExpenseRequestHandler;
+import ata.unit.three.project.expense.lambda.runtime.HandlerRequest;
+import ata.unit.three.project.expense.service.exceptions.InvalidDataException;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @ExcludeFromJacocoGeneratedReport
-public class RetrieveExpensesByEmail
-        implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+public class RetrieveExpensesByEmail extends ExpenseRequestHandler {
 
-
-    static final Logger log = LogManager.getLogger();
+    // The body stays a plain JSON array; the cursor for the next page travels in this header.
+    static final String NEXT_TOKEN_HEADER = "X-Next-Token";
 
     @Override
-    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
-        GsonBuilder builder = new GsonBuilder();
-        Gson gson = builder.create();
-        // Logging the request json to make debugging easier.
-        log.info(gson.toJson(input));
-
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-
-        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent()
-                .withHeaders(headers);
-
-        String email = input.getQueryStringParameters().get("email");
-
-        // Your Code Here
-//        ExpenseService expenseService = App.expenseService();
-
-        ExpenseServiceComponent dagger = DaggerExpenseServiceComponent.create();
-        ExpenseService expenseService = dagger.expenseService();
-
-
-        try{
-            String output = gson.toJson(expenseService.getExpensesByEmail(email));
-            log.info(email);
-
-            return response
-                    .withStatusCode(200)
-                    .withBody(output);
-        } catch (Exception e){
-            log.info(email);
-
+    protected APIGatewayProxyResponseEvent handle(HandlerRequest request) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        String email = request.queryParameter("email");
+
+        // Only bad input is a 400; anything else, such as throttling or a missing index, reaches
+        // ErrorMappingMiddleware as a 500.
+        ExpensePage page;
+        try {
+            String limit = request.queryParameter("limit");
+            page = expenseService().getExpensesByEmail(email,
+                    limit == null ? null : Integer.valueOf(limit),
+                    request.queryParameter("nextToken"));
+        } catch (NumberFormatException | InvalidDataException e) {
             return response
                     .withStatusCode(400);
         }
+
+        // Serialized outside the try so an oversized page is not reported as a bad request.
+        String output = toJson(page.getItems());
+        Map<String, String> headers = new HashMap<>();
+        if (page.getNextToken() != null) {
+            headers.put(NEXT_TOKEN_HEADER, page.getNextToken());
+        }
+        return response
+                .withStatusCode(200)
+                .withHeaders(headers)
+                .withBody(output);
     }
 }
@@ -0,0 +1,84 @@
+package ata.unit.three.project.expense.lambda.json;
+
+import java.io.Writer;
+
+/**
+ * A {@link Writer} over a {@link StringBuilder} that is kept between responses. It counts the UTF-8
+ * size of what is written and fails as soon as the limit is passed, so an oversized response is
+ * abandoned before it is finished rather than after.
+ */
+final class BoundedResponseBuffer extends Writer {
+
+    private final long maxBytes;
+    private final int retainedCapacity;
+    private StringBuilder chars;
+    private long bytes;
+
+    BoundedResponseBuffer(long maxBytes, int retainedCapacity) {
+        this.maxBytes = maxBytes;
+        this.retainedCapacity = retainedCapacity;
+        this.chars = new StringBuilder(Math.min(retainedCapacity, 16 * 1024));
+    }
+
+    @Override
+    public void write(int c) {
+        count((char) c);
+        chars.append((char) c);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            count(buffer[i]);
+        }
+        chars.append(buffer, offset, length);
+    }
+
+    @Override
+    public void write(String value, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            count(value.charAt(i));
+        }
+        chars.append(value, offset, offset + length);
+    }
+
+    @Override
+    public Writer append(CharSequence value) {
+        String string = String.valueOf(value);
+        write(string, 0, string.length());
+        return this;
+    }
+
+    String contents() {
+        return chars.toString();
+    }
+
+    /**
+     * Empties the buffer for the next response. A buffer that grew for one unusually large response
+     * is dropped instead of being held for the life of the container.
+     */
+    void reset() {
+        if (chars.capacity() > retainedCapacity) {
+            chars = new StringBuilder(retainedCapacity);
+        } else {
+            chars.setLength(0);
+        }
+        bytes = 0;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // Surrogate halves count two bytes each, which adds up to the four a supplementary character takes.
+    private void count(char c) {
+        bytes += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        if (bytes > maxBytes) {
+            throw new ResponseTooLargeException(maxBytes);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ata.unit.three.project.expense.lambda.json;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes and reads {@link ExpenseItemList} without reflection. Like reflective Gson it leaves out the
+ * transient expense id set and null fields.
+ */
+public final class ExpenseItemListTypeAdapter extends TypeAdapter<ExpenseItemList> {
+
+    private final ExpenseItemTypeAdapter expenses;
+
+    public ExpenseItemListTypeAdapter(ExpenseItemTypeAdapter expenses) {
+        this.expenses = expenses;
+    }
+
+    @Override
+    public void write(JsonWriter out, ExpenseItemList list) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(list.getId());
+        out.name("title").value(list.getTitle());
+        out.name("email").value(list.getEmail());
+        out.name("expenseItems");
+        if (list.getExpenseItems() == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+            for (ExpenseItem expense : list.getExpenseItems()) {
+                expenses.write(out, expense);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    @Override
+    public ExpenseItemList read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ExpenseItemList list = new ExpenseItemList();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    list.setId(in.nextString());
+                    break;
+                case "title":
+                    list.setTitle(in.nextString());
+                    break;
+                case "email":
+                    list.setEmail(in.nextString());
+                    break;
+                case "expenseItems":
+                    List<ExpenseItem> items = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        items.add(expenses.read(in));
+                    }
+                    in.endArray();
+                    list.setExpenseItems(items);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return list;
+    }
+}
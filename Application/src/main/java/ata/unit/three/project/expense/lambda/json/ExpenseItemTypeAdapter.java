@@ -0,0 +1,70 @@
+package ata.unit.three.project.expense.lambda.json;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes and reads {@link ExpenseItem} without reflection. The output matches what reflective Gson
+ * produces: fields in declaration order and null fields left out.
+ */
+public final class ExpenseItemTypeAdapter extends TypeAdapter<ExpenseItem> {
+
+    @Override
+    public void write(JsonWriter out, ExpenseItem expense) throws IOException {
+        if (expense == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(expense.getId());
+        out.name("email").value(expense.getEmail());
+        out.name("expenseDate").value(expense.getExpenseDate());
+        out.name("title").value(expense.getTitle());
+        out.name("amount").value(expense.getAmount());
+        out.endObject();
+    }
+
+    @Override
+    public ExpenseItem read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ExpenseItem expense = new ExpenseItem();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    expense.setId(in.nextString());
+                    break;
+                case "email":
+                    expense.setEmail(in.nextString());
+                    break;
+                case "expenseDate":
+                    expense.setExpenseDate(in.nextString());
+                    break;
+                case "title":
+                    expense.setTitle(in.nextString());
+                    break;
+                case "amount":
+                    expense.setAmount(in.nextDouble());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return expense;
+    }
+}
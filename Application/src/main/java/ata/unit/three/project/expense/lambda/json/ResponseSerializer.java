@@ -0,0 +1,65 @@
+package ata.unit.three.project.expense.lambda.json;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Turns handler results into response bodies. The Gson instance has hand-written adapters for the
+ * expense models, and output is streamed through a {@link JsonWriter} into one buffer that is reused
+ * across invocations and capped at a maximum size.
+ */
+public class ResponseSerializer {
+
+    // Large enough for a typical list response; anything bigger gets a fresh buffer next time.
+    static final int RETAINED_BUFFER_CHARS = 256 * 1024;
+
+    private final Gson gson;
+    private final BoundedResponseBuffer buffer;
+
+    public ResponseSerializer(Gson gson, long maxResponseBytes) {
+        this.gson = gson;
+        this.buffer = new BoundedResponseBuffer(maxResponseBytes, RETAINED_BUFFER_CHARS);
+    }
+
+    /**
+     * A Gson with the model adapters registered, for both response writing and request parsing.
+     */
+    public static Gson gson() {
+        ExpenseItemTypeAdapter expenses = new ExpenseItemTypeAdapter();
+        return new GsonBuilder()
+                .registerTypeAdapter(ExpenseItem.class, expenses)
+                .registerTypeAdapter(ExpenseItemList.class, new ExpenseItemListTypeAdapter(expenses))
+                .create();
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Serializes the value, throwing {@link ResponseTooLargeException} once the output passes the limit.
+     */
+    public synchronized String toJson(Object value) {
+        try {
+            JsonWriter writer = gson.newJsonWriter(buffer);
+            if (value == null) {
+                gson.toJson(JsonNull.INSTANCE, writer);
+            } else {
+                gson.toJson(value, value.getClass(), writer);
+            }
+            return buffer.contents();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        } finally {
+            buffer.reset();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ata.unit.three.project.expense.lambda.json;
+
+/**
+ * Thrown when a response body grows past the configured limit while it is being written.
+ */
+public class ResponseTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResponseTooLargeException(long maxBytes) {
+        super("Response is larger than " + maxBytes + " bytes");
+    }
+}
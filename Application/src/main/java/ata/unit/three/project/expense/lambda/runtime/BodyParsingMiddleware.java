@@ -0,0 +1,23 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonParser;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Parses the JSON request body once so handlers read fields from the parsed tree instead of
+ * re-parsing the raw string. Malformed JSON surfaces as a {@code JsonParseException}, which
+ * {@link ErrorMappingMiddleware} turns into a 400. Base64 encoded bodies are decoded first by
+ * {@link HandlerRequest#getBody()}.
+ */
+public class BodyParsingMiddleware implements Middleware {
+
+    @Override
+    public APIGatewayProxyResponseEvent handle(HandlerRequest request, HandlerFunction next) {
+        String body = request.getBody();
+        if (StringUtils.isNotBlank(body)) {
+            request.setJsonBody(JsonParser.parseString(body));
+        }
+        return next.handle(request);
+    }
+}
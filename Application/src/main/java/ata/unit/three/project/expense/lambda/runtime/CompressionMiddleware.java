@@ -0,0 +1,122 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips response bodies above a size threshold for clients that send {@code Accept-Encoding: gzip}.
+ * API Gateway only passes binary bodies through base64, so the compressed body is base64 encoded
+ * and flagged with {@code isBase64Encoded}; the API's binary media types must match the client's
+ * {@code Accept} header for API Gateway to decode it again.
+ */
+public class CompressionMiddleware implements Middleware {
+
+    static final String GZIP = "gzip";
+
+    private final int minimumBytes;
+
+    public CompressionMiddleware(int minimumBytes) {
+        this.minimumBytes = minimumBytes;
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handle(HandlerRequest request, HandlerFunction next) {
+        APIGatewayProxyResponseEvent response = next.handle(request);
+        // Bodies below the threshold are left alone, and none of them can be compressed twice.
+        String body = response.getBody();
+        if (body == null || body.length() < minimumBytes
+                || Boolean.TRUE.equals(response.getIsBase64Encoded())
+                || header(response.getHeaders(), "Content-Encoding") != null) {
+            return response;
+        }
+
+        Map<String, String> headers = response.getHeaders() == null
+                ? new HashMap<>()
+                : new HashMap<>(response.getHeaders());
+        headers.put("Vary", "Accept-Encoding");
+        response.setHeaders(headers);
+        if (!acceptsGzip(request.header("Accept-Encoding"))) {
+            return response;
+        }
+
+        byte[] plain = body.getBytes(StandardCharsets.UTF_8);
+        if (plain.length < minimumBytes) {
+            return response;
+        }
+        byte[] compressed = gzip(plain);
+        if (compressed.length >= plain.length) {
+            return response;
+        }
+        headers.put("Content-Encoding", GZIP);
+        return response
+                .withBody(Base64.getEncoder().encodeToString(compressed))
+                .withIsBase64Encoded(true);
+    }
+
+    /**
+     * True when the header lists gzip, or a wildcard, without ruling it out with {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] parameters = part.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parameters) > 0;
+            if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+                return accepted;
+            }
+            if ("*".equals(coding)) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String header(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static byte[] gzip(byte[] plain) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,56 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import ata.unit.three.project.expense.lambda.json.ResponseTooLargeException;
+import ata.unit.three.project.expense.service.exceptions.InvalidDataException;
+import ata.unit.three.project.expense.service.exceptions.ItemNotFoundException;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps exceptions that escape a handler to error responses. Handlers that need a different
+ * status for a given exception still catch it themselves; this is the fallback for everything else.
+ */
+public class ErrorMappingMiddleware implements Middleware {
+
+    static final Logger log = LogManager.getLogger();
+
+    @Override
+    public APIGatewayProxyResponseEvent handle(HandlerRequest request, HandlerFunction next) {
+        try {
+            return next.handle(request);
+        } catch (InvalidDataException e) {
+            return error(request, 400, e.errorPayload());
+        } catch (ItemNotFoundException e) {
+            return error(request, 404, e.errorPayload());
+        } catch (JsonParseException e) {
+            return error(request, 400, payload("invalid_data", "Request body is not valid JSON"));
+        } catch (ResponseTooLargeException e) {
+            log.warn(e.getMessage());
+            return error(request, 500, payload("response_too_large",
+                    "Response is too large; request a smaller page"));
+        } catch (RuntimeException e) {
+            log.error("Unhandled exception", e);
+            return error(request, 500, payload("internal_error", "Internal server error"));
+        }
+    }
+
+    private static APIGatewayProxyResponseEvent error(HandlerRequest request, int statusCode,
+                                                      Map<String, Object> payload) {
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(statusCode)
+                .withBody(request.getGson().toJson(payload));
+    }
+
+    private static Map<String, Object> payload(String errorType, String message) {
+        Map<String, Object> errorPayload = new HashMap<>();
+        errorPayload.put("errorType", errorType);
+        errorPayload.put("message", message);
+        return errorPayload;
+    }
+}
@@ -0,0 +1,53 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import ata.unit.three.project.expense.service.ExpenseService;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.Gson;
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+
+/**
+ * Base class for the API Gateway handlers. Subclasses implement {@link #handle(HandlerRequest)} and
+ * get the shared {@link HandlerRuntime} and middleware chain for free.
+ */
+@ExcludeFromJacocoGeneratedReport
+public abstract class ExpenseRequestHandler
+        implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private final HandlerRuntime runtime;
+    private final HandlerFunction chain;
+
+    protected ExpenseRequestHandler() {
+        this(HandlerRuntime.getInstance());
+    }
+
+    protected ExpenseRequestHandler(HandlerRuntime runtime) {
+        this.runtime = runtime;
+        this.chain = runtime.getMiddleware().wrap(this::handle);
+    }
+
+    @Override
+    public final APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        return chain.handle(new HandlerRequest(input, context, runtime.getGson()));
+    }
+
+    protected abstract APIGatewayProxyResponseEvent handle(HandlerRequest request);
+
+    protected ExpenseService expenseService() {
+        return runtime.getExpenseService();
+    }
+
+    protected Gson gson() {
+        return runtime.getGson();
+    }
+
+    /**
+     * Serializes a response body through the runtime's size-capped, buffer-reusing serializer.
+     */
+    protected String toJson(Object value) {
+        return runtime.getSerializer().toJson(value);
+    }
+}
@@ -0,0 +1,11 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+/**
+ * A single step of request handling: either an endpoint or a middleware bound to the rest of the chain.
+ */
+@FunctionalInterface
+public interface HandlerFunction {
+    APIGatewayProxyResponseEvent handle(HandlerRequest request);
+}
@@ -0,0 +1,115 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * The API Gateway event for one invocation along with the state the middleware attaches to it.
+ */
+public class HandlerRequest {
+
+    private final APIGatewayProxyRequestEvent event;
+    private final Context context;
+    private final Gson gson;
+    private JsonElement jsonBody;
+
+    public HandlerRequest(APIGatewayProxyRequestEvent event, Context context, Gson gson) {
+        this.event = event;
+        this.context = context;
+        this.gson = gson;
+    }
+
+    public APIGatewayProxyRequestEvent getEvent() {
+        return event;
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    public String pathParameter(String name) {
+        return valueOf(event.getPathParameters(), name);
+    }
+
+    public String queryParameter(String name) {
+        return valueOf(event.getQueryStringParameters(), name);
+    }
+
+    /**
+     * Looks up a request header. API Gateway passes header names through as the client sent them,
+     * so the lookup ignores case.
+     */
+    public String header(String name) {
+        Map<String, String> headers = event.getHeaders();
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The raw request body as text. API Gateway base64 encodes the body of any request whose content
+     * type matches the API's binary media types, so such bodies are decoded here.
+     */
+    public String getBody() {
+        String body = event.getBody();
+        if (body != null && isBase64Encoded()) {
+            return new String(Base64.getMimeDecoder().decode(body), StandardCharsets.UTF_8);
+        }
+        return body;
+    }
+
+    boolean isBase64Encoded() {
+        return Boolean.TRUE.equals(event.getIsBase64Encoded());
+    }
+
+    /**
+     * The request body as parsed by {@link BodyParsingMiddleware}, or null when there was no body.
+     */
+    public JsonElement getJsonBody() {
+        return jsonBody;
+    }
+
+    void setJsonBody(JsonElement jsonBody) {
+        this.jsonBody = jsonBody;
+    }
+
+    public <T> T body(Class<T> type) {
+        return gson.fromJson(jsonBody, type);
+    }
+
+    /**
+     * Reads a top level string field from a JSON object body, or null when the field is absent.
+     */
+    public String bodyField(String name) {
+        if (jsonBody == null || !jsonBody.isJsonObject()) {
+            return null;
+        }
+        JsonObject object = jsonBody.getAsJsonObject();
+        JsonElement field = object.get(name);
+        if (field == null || field.isJsonNull()) {
+            return null;
+        }
+        return field.getAsString();
+    }
+
+    private static String valueOf(Map<String, String> parameters, String name) {
+        return parameters == null ? null : parameters.get(name);
+    }
+}
@@ -0,0 +1,88 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import ata.unit.three.project.config.RepositorySettings;
+import ata.unit.three.project.config.ResponseSettings;
+import ata.unit.three.project.config.Settings;
+import ata.unit.three.project.expense.lambda.json.ResponseSerializer;
+import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
+import ata.unit.three.project.expense.service.ExpenseService;
+import ata.unit.three.project.expense.service.ExpenseServiceComponent;
+
+import com.google.gson.Gson;
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+
+/**
+ * Everything a handler needs that is expensive to build: the Dagger graph (and with it the
+ * repository and DynamoDB client), the response serializer and the middleware chain. Lambda keeps the JVM
+ * alive between invocations, so these are built once per container during the init phase and
+ * shared by every invocation that container serves.
+ */
+@ExcludeFromJacocoGeneratedReport
+public final class HandlerRuntime {
+
+    static final Logger log = LogManager.getLogger();
+
+    /**
+     * Off by default: the deploy-time ExpenseSchemaBootstrap command owns the schema. When true, each
+     * container describes each expense table once during init and logs a warning if the schema
+     * is not ready, rather than failing init.
+     */
+    static final String SCHEMA_BOOTSTRAP_SETTING = "EXPENSE_SCHEMA_BOOTSTRAP_ON_INIT";
+
+    private final ExpenseService expenseService;
+    private final ResponseSerializer serializer;
+    private final MiddlewareChain middleware;
+
+    HandlerRuntime(ExpenseServiceComponent component, ResponseSerializer serializer) {
+        this.expenseService = component.expenseService();
+        this.serializer = serializer;
+        this.middleware = MiddlewareChain.of(
+                new ResponseHeadersMiddleware(Collections.singletonMap("Content-Type", "application/json")),
+                new CompressionMiddleware(ResponseSettings.compressionMinimumBytes()),
+                new ErrorMappingMiddleware(),
+                new RequestLoggingMiddleware(),
+                new UnitOfWorkMiddleware(),
+                new BodyParsingMiddleware());
+    }
+
+    public static HandlerRuntime getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public ExpenseService getExpenseService() {
+        return expenseService;
+    }
+
+    public Gson getGson() {
+        return serializer.getGson();
+    }
+
+    public ResponseSerializer getSerializer() {
+        return serializer;
+    }
+
+    public MiddlewareChain getMiddleware() {
+        return middleware;
+    }
+
+    private static HandlerRuntime create() {
+        ExpenseServiceComponent component = DaggerExpenseServiceComponent.create();
+        if (Settings.getBoolean(SCHEMA_BOOTSTRAP_SETTING, false) && !RepositorySettings.isInMemory()) {
+            try {
+                component.schemaBootstrap().verifySchema();
+            } catch (RuntimeException e) {
+                log.warn("Expense schema check failed: {}", e.getMessage());
+            }
+        }
+        return new HandlerRuntime(component,
+                new ResponseSerializer(ResponseSerializer.gson(), ResponseSettings.maxResponseBytes()));
+    }
+
+    private static final class Holder {
+        private static final HandlerRuntime INSTANCE = create();
+    }
+}
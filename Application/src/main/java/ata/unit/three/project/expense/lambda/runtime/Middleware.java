@@ -0,0 +1,12 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+/**
+ * Cross-cutting request handling that wraps every handler. A middleware either calls {@code next}
+ * or short-circuits the request by returning its own response.
+ */
+@FunctionalInterface
+public interface Middleware {
+    APIGatewayProxyResponseEvent handle(HandlerRequest request, HandlerFunction next);
+}
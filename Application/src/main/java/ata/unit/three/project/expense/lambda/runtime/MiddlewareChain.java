@@ -0,0 +1,42 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An ordered list of middleware. The first middleware is the outermost one, so it sees the
+ * request first and the response last.
+ */
+public final class MiddlewareChain {
+
+    private final List<Middleware> middleware;
+
+    private MiddlewareChain(List<Middleware> middleware) {
+        this.middleware = Collections.unmodifiableList(new ArrayList<>(middleware));
+    }
+
+    public static MiddlewareChain of(Middleware... middleware) {
+        return new MiddlewareChain(Arrays.asList(middleware));
+    }
+
+    public MiddlewareChain then(Middleware next) {
+        List<Middleware> extended = new ArrayList<>(middleware);
+        extended.add(next);
+        return new MiddlewareChain(extended);
+    }
+
+    /**
+     * Binds the chain to an endpoint. The result is built once and can be reused for every invocation.
+     */
+    public HandlerFunction wrap(HandlerFunction endpoint) {
+        HandlerFunction chain = endpoint;
+        for (int i = middleware.size() - 1; i >= 0; i--) {
+            Middleware current = middleware.get(i);
+            HandlerFunction next = chain;
+            chain = request -> current.handle(request, next);
+        }
+        return chain;
+    }
+}
@@ -0,0 +1,31 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class RequestLoggingMiddleware implements Middleware {
+
+    static final Logger log = LogManager.getLogger();
+
+    @Override
+    public APIGatewayProxyResponseEvent handle(HandlerRequest request, HandlerFunction next) {
+        // Logging the request json to make debugging easier.
+        log.info(describe(request));
+        return next.handle(request);
+    }
+
+    /**
+     * The event as JSON, with a base64 encoded body logged as the text it encodes.
+     */
+    static String describe(HandlerRequest request) {
+        if (!request.isBase64Encoded()) {
+            return request.getGson().toJson(request.getEvent());
+        }
+        JsonObject event = request.getGson().toJsonTree(request.getEvent()).getAsJsonObject();
+        event.addProperty("body", request.getBody());
+        event.addProperty("isBase64Encoded", false);
+        return request.getGson().toJson(event);
+    }
+}
@@ -0,0 +1,31 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adds default headers to every response. Headers a handler already set are left alone.
+ */
+public class ResponseHeadersMiddleware implements Middleware {
+
+    private final Map<String, String> defaultHeaders;
+
+    public ResponseHeadersMiddleware(Map<String, String> defaultHeaders) {
+        this.defaultHeaders = Collections.unmodifiableMap(new HashMap<>(defaultHeaders));
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handle(HandlerRequest request, HandlerFunction next) {
+        APIGatewayProxyResponseEvent response = next.handle(request);
+        Map<String, String> headers = response.getHeaders() == null
+                ? new HashMap<>()
+                : new HashMap<>(response.getHeaders());
+        for (Map.Entry<String, String> header : defaultHeaders.entrySet()) {
+            headers.putIfAbsent(header.getKey(), header.getValue());
+        }
+        return response.withHeaders(headers);
+    }
+}
@@ -0,0 +1,28 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import ata.unit.three.project.expense.repository.UnitOfWork;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Opens a {@link UnitOfWork} around each request, so the repository loads an item at most once
+ * per request, and logs how many loads that saved.
+ */
+public class UnitOfWorkMiddleware implements Middleware {
+
+    static final Logger log = LogManager.getLogger();
+
+    @Override
+    public APIGatewayProxyResponseEvent handle(HandlerRequest request, HandlerFunction next) {
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            APIGatewayProxyResponseEvent response = next.handle(request);
+            if (unit.getDuplicateLoadsAvoided() > 0) {
+                log.debug("{} loads, {} duplicate loads avoided ({} since start)", unit.getLoads(),
+                        unit.getDuplicateLoadsAvoided(), UnitOfWork.totalDuplicateLoadsAvoided());
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ata.unit.three.project.expense.migration;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.Put;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Builds the write for one migrated row. The condition holds only while the row still exists and
+ * every attribute the migration changes still has the value it was read with, so a write racing
+ * with the API fails instead of undoing the API's change.
+ */
+final class ConditionalPuts {
+
+    private ConditionalPuts() {
+    }
+
+    static Put put(String tableName, String keyAttribute, Map<String, AttributeValue> original,
+                   Map<String, AttributeValue> migrated) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> conditions = new ArrayList<>();
+        names.put("#key", keyAttribute);
+        conditions.add("attribute_exists(#key)");
+
+        TreeSet<String> attributes = new TreeSet<>(original.keySet());
+        attributes.addAll(migrated.keySet());
+        int index = 0;
+        for (String attribute : attributes) {
+            AttributeValue before = original.get(attribute);
+            if (Objects.equals(before, migrated.get(attribute))) {
+                continue;
+            }
+            String name = "#a" + index;
+            names.put(name, attribute);
+            if (before == null) {
+                conditions.add("attribute_not_exists(" + name + ")");
+            } else {
+                values.put(":a" + index, before);
+                conditions.add(name + " = :a" + index);
+            }
+            index++;
+        }
+
+        return new Put()
+                .withTableName(tableName)
+                .withItem(migrated)
+                .withConditionExpression(String.join(" AND ", conditions))
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values.isEmpty() ? null : values);
+    }
+}
@@ -0,0 +1,39 @@
+package ata.unit.three.project.expense.migration;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Moves lists that still embed whole expenses in {@code Expenses} to id-only membership in
+ * {@code ExpenseIds}, the same conversion the repository otherwise does lazily on the first
+ * membership change.
+ */
+public class EmbeddedExpensesToIds extends ExpenseListMigration {
+
+    @Override
+    public String name() {
+        return "embedded-expenses-to-ids";
+    }
+
+    @Override
+    protected boolean transform(ExpenseItemList list) {
+        if (list.getExpenseItems() == null) {
+            return false;
+        }
+        Set<String> expenseIds = list.getExpenseIds() == null
+                ? new LinkedHashSet<>()
+                : new LinkedHashSet<>(list.getExpenseIds());
+        for (ExpenseItem expense : list.getExpenseItems()) {
+            if (expense != null && expense.getId() != null) {
+                expenseIds.add(expense.getId());
+            }
+        }
+        list.setExpenseIds(expenseIds);
+        list.setExpenseItems(null);
+        list.setVersion(list.getVersion() == null ? 1L : list.getVersion() + 1);
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package ata.unit.three.project.expense.migration;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemListAttributeCodec;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EXPENSE_LIST_TABLE_NAME;
+
+/**
+ * A migration written against {@link ExpenseItemList} rather than raw attributes. Attributes the
+ * model does not know about are carried over untouched.
+ */
+public abstract class ExpenseListMigration implements Migration {
+
+    private static final List<String> MODEL_ATTRIBUTES = Arrays.asList(
+            ExpenseItemListAttributeCodec.ID, ExpenseItemListAttributeCodec.TITLE,
+            ExpenseItemListAttributeCodec.EXPENSE_ITEMS, ExpenseItemListAttributeCodec.EXPENSE_IDS,
+            ExpenseItemListAttributeCodec.EMAIL, ExpenseItemListAttributeCodec.VERSION);
+
+    @Override
+    public String tableName() {
+        return EXPENSE_LIST_TABLE_NAME;
+    }
+
+    /**
+     * Changes the list in place and returns true, or returns false if it needs no change.
+     */
+    protected abstract boolean transform(ExpenseItemList list);
+
+    @Override
+    public Map<String, AttributeValue> migrate(Map<String, AttributeValue> item) {
+        ExpenseItemList list = ExpenseItemListAttributeCodec.decode(item);
+        if (!transform(list)) {
+            return null;
+        }
+        Map<String, AttributeValue> migrated = new HashMap<>(item);
+        migrated.keySet().removeAll(MODEL_ATTRIBUTES);
+        migrated.putAll(ExpenseItemListAttributeCodec.encode(list));
+        return migrated;
+    }
+}
@@ -0,0 +1,46 @@
+package ata.unit.three.project.expense.migration;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemAttributeCodec;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ata.unit.three.project.expense.dynamodb.ExpenseTable.EXPENSE_TABLE_NAME;
+
+/**
+ * A migration written against {@link ExpenseItem} rather than raw attributes. Attributes the model
+ * does not know about are carried over untouched.
+ */
+public abstract class ExpenseMigration implements Migration {
+
+    private static final List<String> MODEL_ATTRIBUTES = Arrays.asList(
+            ExpenseItemAttributeCodec.ID, ExpenseItemAttributeCodec.EMAIL, ExpenseItemAttributeCodec.EXPENSE_DATE,
+            ExpenseItemAttributeCodec.TITLE, ExpenseItemAttributeCodec.AMOUNT);
+
+    @Override
+    public String tableName() {
+        return EXPENSE_TABLE_NAME;
+    }
+
+    /**
+     * Changes the expense in place and returns true, or returns false if it needs no change.
+     */
+    protected abstract boolean transform(ExpenseItem expense);
+
+    @Override
+    public Map<String, AttributeValue> migrate(Map<String, AttributeValue> item) {
+        ExpenseItem expense = ExpenseItemAttributeCodec.decode(item);
+        if (!transform(expense)) {
+            return null;
+        }
+        Map<String, AttributeValue> migrated = new HashMap<>(item);
+        migrated.keySet().removeAll(MODEL_ATTRIBUTES);
+        migrated.putAll(ExpenseItemAttributeCodec.encode(expense));
+        return migrated;
+    }
+}
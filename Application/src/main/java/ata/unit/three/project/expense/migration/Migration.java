@@ -0,0 +1,32 @@
+package ata.unit.three.project.expense.migration;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * One rewrite of every row in a table, run by {@link MigrationRunner}. Implementations must be
+ * idempotent: a row that is already migrated comes back as null, so a resumed or repeated run only
+ * writes what is left.
+ */
+public interface Migration {
+
+    /**
+     * Names the migration on the command line and in its checkpoint file.
+     */
+    String name();
+
+    String tableName();
+
+    /**
+     * The table's hash key attribute. Both expense tables use Id.
+     */
+    default String keyAttribute() {
+        return "Id";
+    }
+
+    /**
+     * Returns the complete new row, or null to leave the row as it is.
+     */
+    Map<String, AttributeValue> migrate(Map<String, AttributeValue> item);
+}
@@ -0,0 +1,39 @@
+package ata.unit.three.project.expense.migration;
+
+import ata.unit.three.project.expense.service.DaggerExpenseServiceComponent;
+
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Paths;
+
+/**
+ * Runs a migration from the command line:
+ *
+ * <pre>
+ * ./gradlew :Application:runMain \
+ *     -PmainClass=ata.unit.three.project.expense.migration.MigrationCommand \
+ *     -Pargs="normalize-expense-dates"
+ * </pre>
+ *
+ * The first argument names the migration; the optional second is the checkpoint file, by default
+ * {@code <name>.checkpoint} in the working directory. Rerunning with the same file resumes.
+ */
+@ExcludeFromJacocoGeneratedReport
+public class MigrationCommand {
+
+    static final Logger log = LogManager.getLogger();
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            throw new IllegalArgumentException("Usage: MigrationCommand <migration> [checkpoint file]");
+        }
+        Migration migration = Migrations.byName(args[0]);
+        String checkpoint = args.length == 2 ? args[1] : migration.name() + ".checkpoint";
+
+        MigrationResult result = DaggerExpenseServiceComponent.create().migrationRunner()
+                .run(migration, new SegmentCheckpoints(Paths.get(checkpoint)));
+        log.info("Migration {} finished: {}", migration.name(), result);
+    }
+}
@@ -0,0 +1,38 @@
+package ata.unit.three.project.expense.migration;
+
+/**
+ * Row counts for one run of a migration. Conflicts are rows that changed between the Scan and the
+ * write and were read again.
+ */
+public class MigrationResult {
+    private final long scanned;
+    private final long migrated;
+    private final long conflicts;
+
+    public MigrationResult(long scanned, long migrated, long conflicts) {
+        this.scanned = scanned;
+        this.migrated = migrated;
+        this.conflicts = conflicts;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public long getMigrated() {
+        return migrated;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    MigrationResult plus(MigrationResult other) {
+        return new MigrationResult(scanned + other.scanned, migrated + other.migrated, conflicts + other.conflicts);
+    }
+
+    @Override
+    public String toString() {
+        return "MigrationResult{scanned=" + scanned + ", migrated=" + migrated + ", conflicts=" + conflicts + '}';
+    }
+}
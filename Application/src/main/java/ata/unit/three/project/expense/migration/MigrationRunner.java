@@ -0,0 +1,263 @@
+package ata.unit.three.project.expense.migration;
+
+import ata.unit.three.project.config.MigrationSettings;
+import ata.unit.three.project.expense.dynamodb.CapacityBudget;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputDescription;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.kenzie.ata.ExcludeFromJacocoGeneratedReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.inject.Inject;
+
+/**
+ * Runs a {@link Migration} over its whole table while the API keeps serving. The table is read with
+ * a parallel Scan, one thread per segment, and every page's rewritten rows are written back before
+ * the segment's checkpoint moves past it, so a stopped run resumes where it left off.
+ *
+ * <p>Rewrites go out 25 at a time in a TransactWriteItems call, because BatchWriteItem cannot carry
+ * a condition. Each Put is conditioned on the row being as it was scanned. If a row changed in the
+ * meantime the transaction is cancelled as a whole, so its rows are retried one PutItem at a time;
+ * the row that changed is read again, consistently, and migrated from its current value.
+ *
+ * <p>Reads and writes each have a {@link CapacityBudget}: a share of the table's provisioned
+ * throughput, or a fixed number of units when the table is on-demand.
+ */
+@ExcludeFromJacocoGeneratedReport
+public class MigrationRunner {
+
+    static final Logger log = LogManager.getLogger();
+
+    static final int TRANSACTION_LIMIT = 25;
+    static final int MAX_ROW_ATTEMPTS = 3;
+
+    private final AmazonDynamoDB client;
+
+    @Inject
+    public MigrationRunner(AmazonDynamoDB client) {
+        this.client = client;
+    }
+
+    public MigrationResult run(Migration migration, SegmentCheckpoints checkpoints) {
+        int segments = MigrationSettings.segments();
+        checkpoints.start(segments);
+
+        TableDescription table = client.describeTable(migration.tableName()).getTable();
+        CapacityBudget reads = new CapacityBudget(budget(table, true, MigrationSettings.onDemandReadUnits()));
+        CapacityBudget writes = new CapacityBudget(budget(table, false, MigrationSettings.onDemandWriteUnits()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(segments);
+        try {
+            List<Future<MigrationResult>> results = new ArrayList<>(segments);
+            for (int segment = 0; segment < segments; segment++) {
+                if (checkpoints.isDone(segment)) {
+                    continue;
+                }
+                int current = segment;
+                results.add(pool.submit(() ->
+                        migrateSegment(migration, current, segments, checkpoints, reads, writes)));
+            }
+            MigrationResult total = new MigrationResult(0, 0, 0);
+            for (Future<MigrationResult> result : results) {
+                total = total.plus(await(result));
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private MigrationResult migrateSegment(Migration migration, int segment, int segments,
+                                           SegmentCheckpoints checkpoints, CapacityBudget reads,
+                                           CapacityBudget writes) throws InterruptedException {
+        Counts counts = new Counts();
+        Map<String, AttributeValue> startKey = checkpoints.startKey(segment);
+        do {
+            ScanResult page = client.scan(new ScanRequest()
+                    .withTableName(migration.tableName())
+                    .withSegment(segment)
+                    .withTotalSegments(segments)
+                    .withLimit(MigrationSettings.pageSize())
+                    .withExclusiveStartKey(startKey)
+                    .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+            reads.consume(units(page.getConsumedCapacity()));
+
+            List<Rewrite> rewrites = new ArrayList<>();
+            for (Map<String, AttributeValue> item : page.getItems()) {
+                counts.scanned++;
+                Map<String, AttributeValue> migrated = migration.migrate(item);
+                if (migrated != null) {
+                    rewrites.add(new Rewrite(item, migrated));
+                }
+            }
+            for (int from = 0; from < rewrites.size(); from += TRANSACTION_LIMIT) {
+                write(migration, rewrites.subList(from, Math.min(from + TRANSACTION_LIMIT, rewrites.size())),
+                        writes, counts);
+            }
+
+            startKey = page.getLastEvaluatedKey();
+            checkpoints.save(segment, startKey);
+        } while (startKey != null && !startKey.isEmpty());
+
+        log.info("{} segment {}: {} scanned, {} migrated, {} conflicts", migration.name(), segment,
+                counts.scanned, counts.migrated, counts.conflicts);
+        return new MigrationResult(counts.scanned, counts.migrated, counts.conflicts);
+    }
+
+    private void write(Migration migration, List<Rewrite> rewrites, CapacityBudget writes, Counts counts)
+            throws InterruptedException {
+        List<TransactWriteItem> items = new ArrayList<>(rewrites.size());
+        for (Rewrite rewrite : rewrites) {
+            items.add(new TransactWriteItem().withPut(ConditionalPuts.put(migration.tableName(),
+                    migration.keyAttribute(), rewrite.original, rewrite.migrated)));
+        }
+        try {
+            TransactWriteItemsResult result = client.transactWriteItems(new TransactWriteItemsRequest()
+                    .withTransactItems(items)
+                    .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+            counts.migrated += rewrites.size();
+            writes.consume(units(result.getConsumedCapacity()));
+        } catch (TransactionCanceledException e) {
+            // One stale row cancels the whole transaction; write the rows singly so only it is re-read.
+            for (Rewrite rewrite : rewrites) {
+                writeRow(migration, rewrite, writes, counts);
+            }
+        }
+    }
+
+    private void writeRow(Migration migration, Rewrite rewrite, CapacityBudget writes, Counts counts)
+            throws InterruptedException {
+        String keyAttribute = migration.keyAttribute();
+        Map<String, AttributeValue> key = Collections.singletonMap(keyAttribute,
+                rewrite.original.get(keyAttribute));
+        Map<String, AttributeValue> original = rewrite.original;
+        Map<String, AttributeValue> migrated = rewrite.migrated;
+        for (int attempt = 0; attempt < MAX_ROW_ATTEMPTS; attempt++) {
+            Put put = ConditionalPuts.put(migration.tableName(), keyAttribute, original, migrated);
+            try {
+                PutItemResult result = client.putItem(new PutItemRequest()
+                        .withTableName(put.getTableName())
+                        .withItem(put.getItem())
+                        .withConditionExpression(put.getConditionExpression())
+                        .withExpressionAttributeNames(put.getExpressionAttributeNames())
+                        .withExpressionAttributeValues(put.getExpressionAttributeValues())
+                        .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+                counts.migrated++;
+                writes.consume(units(result.getConsumedCapacity()));
+                return;
+            } catch (ConditionalCheckFailedException e) {
+                counts.conflicts++;
+                original = client.getItem(new GetItemRequest()
+                        .withTableName(migration.tableName())
+                        .withKey(key)
+                        .withConsistentRead(true)).getItem();
+                // Deleted, or already in the new shape, since the Scan: nothing left to do.
+                migrated = original == null ? null : migration.migrate(original);
+                if (migrated == null) {
+                    return;
+                }
+            }
+        }
+        // Leave the checkpoint before this page so a rerun picks the row up again.
+        throw new IllegalStateException(migration.name() + ": " + key + " kept changing during the migration");
+    }
+
+    /**
+     * The budget in units per second. Writes to a table also write its indexes, so the write share is
+     * taken from whichever of the table and its indexes has the least provisioned write capacity.
+     */
+    private static double budget(TableDescription table, boolean reads, long onDemandUnits) {
+        Long provisioned = units(table.getProvisionedThroughput(), reads);
+        if (!reads && table.getGlobalSecondaryIndexes() != null) {
+            for (GlobalSecondaryIndexDescription index : table.getGlobalSecondaryIndexes()) {
+                Long indexUnits = units(index.getProvisionedThroughput(), false);
+                if (indexUnits != null && (provisioned == null || indexUnits < provisioned)) {
+                    provisioned = indexUnits;
+                }
+            }
+        }
+        if (provisioned == null) {
+            return onDemandUnits;
+        }
+        return Math.max(1.0, provisioned * MigrationSettings.capacityPercent() / 100.0);
+    }
+
+    private static Long units(ProvisionedThroughputDescription throughput, boolean reads) {
+        if (throughput == null) {
+            return null;
+        }
+        Long units = reads ? throughput.getReadCapacityUnits() : throughput.getWriteCapacityUnits();
+        // On-demand tables report zero provisioned units.
+        return units == null || units == 0 ? null : units;
+    }
+
+    private static double units(ConsumedCapacity consumedCapacity) {
+        return consumedCapacity == null || consumedCapacity.getCapacityUnits() == null
+                ? 0 : consumedCapacity.getCapacityUnits();
+    }
+
+    private static double units(List<ConsumedCapacity> consumedCapacity) {
+        double total = 0;
+        if (consumedCapacity != null) {
+            for (ConsumedCapacity capacity : consumedCapacity) {
+                total += units(capacity);
+            }
+        }
+        return total;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while migrating", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Rewrite {
+        private final Map<String, AttributeValue> original;
+        private final Map<String, AttributeValue> migrated;
+
+        private Rewrite(Map<String, AttributeValue> original, Map<String, AttributeValue> migrated) {
+            this.original = original;
+            this.migrated = migrated;
+        }
+    }
+
+    private static final class Counts {
+        private long scanned;
+        private long migrated;
+        private long conflicts;
+    }
+}
@@ -0,0 +1,31 @@
+package ata.unit.three.project.expense.migration;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The migrations {@link MigrationCommand} can run, by name.
+ */
+public final class Migrations {
+
+    private static final List<Migration> ALL = Arrays.asList(
+            new NormalizeExpenseDates(),
+            new EmbeddedExpensesToIds());
+
+    private Migrations() {
+    }
+
+    public static Migration byName(String name) {
+        Map<String, Migration> byName = new LinkedHashMap<>();
+        for (Migration migration : ALL) {
+            byName.put(migration.name(), migration);
+        }
+        Migration migration = byName.get(name);
+        if (migration == null) {
+            throw new IllegalArgumentException("Unknown migration " + name + "; expected one of " + byName.keySet());
+        }
+        return migration;
+    }
+}
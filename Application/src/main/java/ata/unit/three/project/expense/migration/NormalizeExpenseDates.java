@@ -0,0 +1,27 @@
+package ata.unit.three.project.expense.migration;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseDates;
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+
+/**
+ * Rewrites ExpenseDate values stored before dates had a fixed width (for example
+ * {@code Instant.toString()} output without milliseconds), so EmailDateIndex orders them correctly.
+ * Dates that cannot be parsed are left for a person to look at.
+ */
+public class NormalizeExpenseDates extends ExpenseMigration {
+
+    @Override
+    public String name() {
+        return "normalize-expense-dates";
+    }
+
+    @Override
+    protected boolean transform(ExpenseItem expense) {
+        String normalized = ExpenseDates.normalize(expense.getExpenseDate());
+        if (normalized == null || normalized.equals(expense.getExpenseDate())) {
+            return false;
+        }
+        expense.setExpenseDate(normalized);
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+package ata.unit.three.project.expense.migration;
+
+import ata.unit.three.project.expense.dynamodb.PageToken;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Where each Scan segment of a migration has got to, kept in a properties file. A segment's entry is
+ * the key to continue after, or {@code done}. Each save replaces the file atomically.
+ */
+public class SegmentCheckpoints {
+
+    private static final String SEGMENTS = "segments";
+    private static final String DONE = "done";
+
+    private final Path file;
+    private final Properties properties = new Properties();
+
+    public SegmentCheckpoints(Path file) {
+        this.file = file;
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Records the segment count, or checks it against the one a resumed run started with; segment
+     * positions mean nothing under a different count.
+     */
+    public synchronized void start(int segments) {
+        String recorded = properties.getProperty(SEGMENTS);
+        if (recorded != null && Integer.parseInt(recorded) != segments) {
+            throw new IllegalStateException(file + " was written by a run with " + recorded
+                    + " segments, not " + segments);
+        }
+        properties.setProperty(SEGMENTS, Integer.toString(segments));
+        write();
+    }
+
+    public synchronized boolean isDone(int segment) {
+        return DONE.equals(properties.getProperty(key(segment)));
+    }
+
+    /**
+     * The key to resume the segment after, or null to start it from the beginning.
+     */
+    public synchronized Map<String, AttributeValue> startKey(int segment) {
+        String token = properties.getProperty(key(segment));
+        return token == null || DONE.equals(token) ? null : PageToken.decode(token);
+    }
+
+    public synchronized void save(int segment, Map<String, AttributeValue> lastEvaluatedKey) {
+        String token = PageToken.encode(lastEvaluatedKey);
+        properties.setProperty(key(segment), token == null ? DONE : token);
+        write();
+    }
+
+    private void write() {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            properties.store(out, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String key(int segment) {
+        return "segment." + segment;
+    }
+}
@@ -0,0 +1,77 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Point reads that return futures, so a caller that needs several independent items waits for the
+ * slowest read instead of the sum of them. Reads go through the wrapped repository, caches included,
+ * on the given executor, inside the caller's {@link UnitOfWork}.
+ */
+public class AsyncExpenseRepository {
+
+    private final ExpenseRepository repository;
+    private final Executor executor;
+
+    public AsyncExpenseRepository(ExpenseRepository repository, Executor executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs every read on the calling thread, one after the other.
+     */
+    public static AsyncExpenseRepository sameThread(ExpenseRepository repository) {
+        return new AsyncExpenseRepository(repository, Runnable::run);
+    }
+
+    /**
+     * A fixed pool of daemon threads with a queue of the same size. When both are full the caller
+     * runs the read itself, so a burst slows down rather than queueing without bound.
+     */
+    public static Executor boundedExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "expense-read-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public CompletableFuture<ExpenseItem> getExpenseById(String expenseId) {
+        return CompletableFuture.supplyAsync(UnitOfWork.bind(() -> repository.getExpenseById(expenseId)), executor);
+    }
+
+    public CompletableFuture<ExpenseItemList> getExpenseListSummaryById(String id) {
+        return CompletableFuture.supplyAsync(UnitOfWork.bind(() -> repository.getExpenseListSummaryById(id)),
+                executor);
+    }
+
+    /**
+     * Waits for the read and rethrows its exception unwrapped, as the synchronous call would have.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
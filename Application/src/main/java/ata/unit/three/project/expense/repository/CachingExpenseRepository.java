@@ -0,0 +1,85 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+
+/**
+ * Keeps recently read expenses in memory so repeated lookups of the same id in a warm container
+ * skip DynamoDB. Writes made through this repository refresh or drop the cached copy; writes made
+ * by other containers become visible once the entry's TTL runs out. Hit and miss counts are logged
+ * at most once a minute.
+ */
+public class CachingExpenseRepository extends ForwardingExpenseRepository {
+
+    private static final Logger log = LogManager.getLogger();
+
+    private final ExpiringLruCache<String, ExpenseItem> expenses;
+    private final StatsLog statsLog = new StatsLog(StatsLog.DEFAULT_INTERVAL_MS);
+
+    public CachingExpenseRepository(ExpenseRepository delegate, int maxEntries, long ttlMillis) {
+        this(delegate, new ExpiringLruCache<>(maxEntries, ttlMillis));
+    }
+
+    CachingExpenseRepository(ExpenseRepository delegate, ExpiringLruCache<String, ExpenseItem> expenses) {
+        super(delegate);
+        this.expenses = expenses;
+    }
+
+    public CacheStats expenseCacheStats() {
+        return expenses.stats();
+    }
+
+    @Override
+    public ExpenseItem getExpenseById(String expenseId) {
+        ExpenseItem cached = expenses.get(expenseId);
+        if (statsLog.due()) {
+            log.info("Expense cache: {}", expenses.stats());
+        }
+        if (cached != null) {
+            return Copies.copy(cached);
+        }
+        // Misses are not cached, so an expense created elsewhere shows up on the next read.
+        ExpenseItem expense = delegate().getExpenseById(expenseId);
+        if (expense != null) {
+            expenses.put(expenseId, Copies.copy(expense));
+        }
+        return expense;
+    }
+
+    @Override
+    public void createExpense(ExpenseItem expense) {
+        expenses.invalidate(expense.getId());
+        delegate().createExpense(expense);
+        expenses.put(expense.getId(), Copies.copy(expense));
+    }
+
+    // Batches come from imports and are rarely read back soon; caching them would evict the
+    // expenses this container is serving, so later reads fill the cache instead.
+    @Override
+    public List<ExpenseItem> createExpenses(List<ExpenseItem> batch) {
+        for (ExpenseItem expense : batch) {
+            expenses.invalidate(expense.getId());
+        }
+        return delegate().createExpenses(batch);
+    }
+
+    @Override
+    public ExpenseItem updateExpense(String expenseId, String title, Double amount) {
+        expenses.invalidate(expenseId);
+        ExpenseItem updated = delegate().updateExpense(expenseId, title, amount);
+        if (updated != null) {
+            expenses.put(expenseId, Copies.copy(updated));
+        }
+        return updated;
+    }
+
+    @Override
+    public ExpenseItem deleteExpense(String expenseId) {
+        expenses.invalidate(expenseId);
+        return delegate().deleteExpense(expenseId);
+    }
+}
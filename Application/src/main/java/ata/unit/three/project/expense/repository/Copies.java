@@ -0,0 +1,61 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Defensive copies for repositories that keep items on the heap. Callers are free to mutate what a
+ * repository returns (the service sorts list contents in place), so shared instances never leave.
+ */
+final class Copies {
+
+    private Copies() {
+    }
+
+    static ExpenseItem copy(ExpenseItem expense) {
+        if (expense == null) {
+            return null;
+        }
+        ExpenseItem copy = new ExpenseItem();
+        copy.setId(expense.getId());
+        copy.setEmail(expense.getEmail());
+        copy.setExpenseDate(expense.getExpenseDate());
+        copy.setTitle(expense.getTitle());
+        copy.setAmount(expense.getAmount());
+        return copy;
+    }
+
+    static ExpenseItemList copy(ExpenseItemList list) {
+        if (list == null) {
+            return null;
+        }
+        ExpenseItemList copy = new ExpenseItemList();
+        copy.setId(list.getId());
+        copy.setEmail(list.getEmail());
+        copy.setTitle(list.getTitle());
+        copy.setVersion(list.getVersion());
+        copy.setExpenseIds(list.getExpenseIds() == null ? null : new LinkedHashSet<>(list.getExpenseIds()));
+        copy.setExpenseItems(list.getExpenseItems() == null ? null : copyExpenses(list.getExpenseItems()));
+        return copy;
+    }
+
+    static List<ExpenseItem> copyExpenses(List<ExpenseItem> expenses) {
+        List<ExpenseItem> copy = new ArrayList<>(expenses.size());
+        for (ExpenseItem expense : expenses) {
+            copy.add(copy(expense));
+        }
+        return copy;
+    }
+
+    static List<ExpenseItemList> copyLists(List<ExpenseItemList> lists) {
+        List<ExpenseItemList> copy = new ArrayList<>(lists.size());
+        for (ExpenseItemList list : lists) {
+            copy.add(copy(list));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,15 @@
+package ata.unit.three.project.expense.repository;
+
+/**
+ * A counter per email that moves forward whenever that user's expenses or lists change. Cached
+ * query results are only served while the counter still has the value it had when they were cached.
+ */
+public interface EmailVersions {
+
+    /**
+     * The current version, or 0 if nothing has been written for the email yet.
+     */
+    long current(String email);
+
+    void increment(String email);
+}
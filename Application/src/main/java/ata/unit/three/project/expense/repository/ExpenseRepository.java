@@ -0,0 +1,79 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
+
+import java.util.List;
+
+/**
+ * Storage for expenses and expense lists. {@code ExpenseServiceRepository} is the DynamoDB
+ * implementation; {@link InMemoryExpenseRepository} keeps everything on the heap for benchmarks and
+ * local load runs. Methods return null for items that do not exist rather than throwing.
+ */
+public interface ExpenseRepository {
+
+    ExpenseItem getExpenseById(String expenseId);
+
+    /**
+     * All of a user's expenses, newest first.
+     */
+    List<ExpenseItem> getExpensesByEmail(String email);
+
+    /**
+     * At most {@code limit} of a user's expenses, newest first, continuing after {@code nextToken}.
+     *
+     * @throws IllegalArgumentException if nextToken is malformed or belongs to a different email
+     */
+    ExpensePage getExpensesByEmail(String email, int limit, String nextToken);
+
+    void createExpense(ExpenseItem expense);
+
+    /**
+     * Writes many new expenses at once. Returns the expenses that could not be written even after
+     * retrying, so an empty list means every expense was stored.
+     */
+    List<ExpenseItem> createExpenses(List<ExpenseItem> expenses);
+
+    /**
+     * Applies the non-null fields. Returns the updated expense, or null if it does not exist.
+     */
+    ExpenseItem updateExpense(String expenseId, String title, Double amount);
+
+    /**
+     * Returns the deleted expense, or null if it did not exist.
+     */
+    ExpenseItem deleteExpense(String expenseId);
+
+    void createExpenseList(String expenseListId, String email, String title);
+
+    /**
+     * Adds the expense if the list exists, has the expense's email and does not already contain it.
+     * Returns the updated list without hydrated expenses, or null if the change was rejected.
+     */
+    ExpenseItemList addExpenseItemToList(String id, ExpenseItem item);
+
+    /**
+     * Returns the updated list without hydrated expenses, or null if the list does not contain
+     * the expense.
+     */
+    ExpenseItemList removeExpenseItemToList(String id, String expenseId);
+
+    /**
+     * A user's lists with their expenses hydrated. Expenses are never null.
+     */
+    List<ExpenseItemList> getExpenseListsByEmail(String email);
+
+    /**
+     * The list with its expenses hydrated, or null if it does not exist.
+     */
+    ExpenseItemList getExpenseListById(String id);
+
+    /**
+     * The list as stored, without loading its expenses, or null if it does not exist. Enough to
+     * check ownership and membership.
+     */
+    ExpenseItemList getExpenseListSummaryById(String id);
+
+    void deleteExpenseItemList(String expenseListId);
+}
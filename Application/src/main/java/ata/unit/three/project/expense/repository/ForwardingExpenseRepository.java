@@ -0,0 +1,94 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
+
+import java.util.List;
+
+/**
+ * Passes every call through to another repository. Decorators extend this and override only the
+ * methods they change.
+ */
+public abstract class ForwardingExpenseRepository implements ExpenseRepository {
+
+    private final ExpenseRepository delegate;
+
+    protected ForwardingExpenseRepository(ExpenseRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    protected ExpenseRepository delegate() {
+        return delegate;
+    }
+
+    @Override
+    public ExpenseItem getExpenseById(String expenseId) {
+        return delegate.getExpenseById(expenseId);
+    }
+
+    @Override
+    public List<ExpenseItem> getExpensesByEmail(String email) {
+        return delegate.getExpensesByEmail(email);
+    }
+
+    @Override
+    public ExpensePage getExpensesByEmail(String email, int limit, String nextToken) {
+        return delegate.getExpensesByEmail(email, limit, nextToken);
+    }
+
+    @Override
+    public void createExpense(ExpenseItem expense) {
+        delegate.createExpense(expense);
+    }
+
+    @Override
+    public List<ExpenseItem> createExpenses(List<ExpenseItem> expenses) {
+        return delegate.createExpenses(expenses);
+    }
+
+    @Override
+    public ExpenseItem updateExpense(String expenseId, String title, Double amount) {
+        return delegate.updateExpense(expenseId, title, amount);
+    }
+
+    @Override
+    public ExpenseItem deleteExpense(String expenseId) {
+        return delegate.deleteExpense(expenseId);
+    }
+
+    @Override
+    public void createExpenseList(String expenseListId, String email, String title) {
+        delegate.createExpenseList(expenseListId, email, title);
+    }
+
+    @Override
+    public ExpenseItemList addExpenseItemToList(String id, ExpenseItem item) {
+        return delegate.addExpenseItemToList(id, item);
+    }
+
+    @Override
+    public ExpenseItemList removeExpenseItemToList(String id, String expenseId) {
+        return delegate.removeExpenseItemToList(id, expenseId);
+    }
+
+    @Override
+    public List<ExpenseItemList> getExpenseListsByEmail(String email) {
+        return delegate.getExpenseListsByEmail(email);
+    }
+
+    @Override
+    public ExpenseItemList getExpenseListById(String id) {
+        return delegate.getExpenseListById(id);
+    }
+
+    @Override
+    public ExpenseItemList getExpenseListSummaryById(String id) {
+        return delegate.getExpenseListSummaryById(id);
+    }
+
+    @Override
+    public void deleteExpenseItemList(String expenseListId) {
+        delegate.deleteExpenseItemList(expenseListId);
+    }
+}
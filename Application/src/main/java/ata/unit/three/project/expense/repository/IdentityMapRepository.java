@@ -0,0 +1,141 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves point reads from the current {@link UnitOfWork} when the request has already loaded the
+ * item, and keeps the unit in step with the request's own writes. Without an open unit every call
+ * passes straight through. Batch reads inside the wrapped repository see the same unit through
+ * {@link #loadedExpenses()}.
+ */
+public class IdentityMapRepository extends ForwardingExpenseRepository {
+
+    public IdentityMapRepository(ExpenseRepository delegate) {
+        super(delegate);
+    }
+
+    /**
+     * The current unit's expenses, for passing to a repository that hydrates lists in batches.
+     */
+    public static LoadedExpenses loadedExpenses() {
+        return new LoadedExpenses() {
+            @Override
+            public Map<String, ExpenseItem> get(Collection<String> ids) {
+                UnitOfWork unit = UnitOfWork.current();
+                return unit == null ? Collections.emptyMap() : unit.loadedExpenses(ids);
+            }
+
+            @Override
+            public void remember(Collection<ExpenseItem> expenses) {
+                UnitOfWork unit = UnitOfWork.current();
+                if (unit != null) {
+                    for (ExpenseItem expense : expenses) {
+                        unit.remember(expense.getId(), expense);
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public ExpenseItem getExpenseById(String expenseId) {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit == null) {
+            return delegate().getExpenseById(expenseId);
+        }
+        return unit.expense(expenseId, () -> delegate().getExpenseById(expenseId));
+    }
+
+    @Override
+    public ExpenseItemList getExpenseListById(String id) {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit == null) {
+            return delegate().getExpenseListById(id);
+        }
+        return unit.list(id, () -> delegate().getExpenseListById(id));
+    }
+
+    @Override
+    public void createExpense(ExpenseItem expense) {
+        delegate().createExpense(expense);
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            unit.remember(expense.getId(), expense);
+        }
+    }
+
+    @Override
+    public List<ExpenseItem> createExpenses(List<ExpenseItem> batch) {
+        List<ExpenseItem> unwritten = delegate().createExpenses(batch);
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            for (ExpenseItem expense : batch) {
+                unit.forget(expense.getId());
+            }
+        }
+        return unwritten;
+    }
+
+    @Override
+    public ExpenseItem updateExpense(String expenseId, String title, Double amount) {
+        ExpenseItem updated = delegate().updateExpense(expenseId, title, amount);
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            unit.remember(expenseId, updated);
+        }
+        return updated;
+    }
+
+    @Override
+    public ExpenseItem deleteExpense(String expenseId) {
+        ExpenseItem deleted = delegate().deleteExpense(expenseId);
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            unit.remember(expenseId, null);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void createExpenseList(String expenseListId, String email, String title) {
+        delegate().createExpenseList(expenseListId, email, title);
+        forgetList(expenseListId);
+    }
+
+    // Membership writes return the list without its expenses, so the next read loads it again.
+    @Override
+    public ExpenseItemList addExpenseItemToList(String id, ExpenseItem item) {
+        ExpenseItemList updated = delegate().addExpenseItemToList(id, item);
+        forgetList(id);
+        return updated;
+    }
+
+    @Override
+    public ExpenseItemList removeExpenseItemToList(String id, String expenseId) {
+        ExpenseItemList updated = delegate().removeExpenseItemToList(id, expenseId);
+        forgetList(id);
+        return updated;
+    }
+
+    @Override
+    public void deleteExpenseItemList(String expenseListId) {
+        delegate().deleteExpenseItemList(expenseListId);
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            unit.rememberList(expenseListId, null);
+        }
+    }
+
+    private static void forgetList(String id) {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            unit.forgetList(id);
+        }
+    }
+}
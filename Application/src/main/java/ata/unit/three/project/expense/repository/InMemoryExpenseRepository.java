@@ -0,0 +1,267 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
+import ata.unit.three.project.expense.dynamodb.PageToken;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * A heap-only {@link ExpenseRepository} for benchmarks and local load runs. Items live in
+ * ConcurrentHashMaps keyed by id and are found by email through lock-striped secondary indexes.
+ * Every method hands out copies, so callers can mutate what they get back just as they can with
+ * items decoded from DynamoDB. Nothing survives a restart.
+ */
+@Singleton
+public class InMemoryExpenseRepository implements ExpenseRepository {
+
+    private static final int INDEX_STRIPES = 64;
+
+    // Same order and page token format as the DynamoDB EmailDateIndex query.
+    private static final Comparator<ExpenseItem> NEWEST_FIRST = Comparator
+            .comparing((ExpenseItem item) -> nullToEmpty(item.getExpenseDate()))
+            .thenComparing(ExpenseItem::getId)
+            .reversed();
+
+    private final Map<String, ExpenseItem> expenses = new ConcurrentHashMap<>();
+    private final Map<String, ExpenseItemList> lists = new ConcurrentHashMap<>();
+    private final StripedIndex expensesByEmail = new StripedIndex(INDEX_STRIPES);
+    private final StripedIndex listsByEmail = new StripedIndex(INDEX_STRIPES);
+
+    @Inject
+    public InMemoryExpenseRepository() {
+    }
+
+    @Override
+    public ExpenseItem getExpenseById(String expenseId) {
+        return Copies.copy(expenses.get(expenseId));
+    }
+
+    @Override
+    public List<ExpenseItem> getExpensesByEmail(String email) {
+        List<ExpenseItem> result = new ArrayList<>();
+        for (String expenseId : expensesByEmail.get(email)) {
+            ExpenseItem expense = expenses.get(expenseId);
+            // The index is updated after the primary map, so it can briefly point at a deleted or
+            // re-homed expense; the DynamoDB GSI has the same kind of lag.
+            if (expense != null && email.equals(expense.getEmail())) {
+                result.add(Copies.copy(expense));
+            }
+        }
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+
+    @Override
+    public ExpensePage getExpensesByEmail(String email, int limit, String nextToken) {
+        Map<String, AttributeValue> startKey = PageToken.decode(nextToken);
+        ExpenseItem cursor = null;
+        if (startKey != null) {
+            AttributeValue tokenEmail = startKey.get("Email");
+            AttributeValue id = startKey.get("Id");
+            if (tokenEmail == null || !email.equals(tokenEmail.getS()) || id == null) {
+                throw new IllegalArgumentException("Page token does not belong to this query");
+            }
+            cursor = new ExpenseItem();
+            cursor.setId(id.getS());
+            AttributeValue expenseDate = startKey.get("ExpenseDate");
+            cursor.setExpenseDate(expenseDate == null ? null : expenseDate.getS());
+        }
+
+        List<ExpenseItem> page = new ArrayList<>();
+        String token = null;
+        for (ExpenseItem expense : getExpensesByEmail(email)) {
+            if (cursor != null && NEWEST_FIRST.compare(expense, cursor) <= 0) {
+                continue;
+            }
+            if (page.size() == limit) {
+                token = PageToken.encode(pageKey(page.get(page.size() - 1)));
+                break;
+            }
+            page.add(expense);
+        }
+        return new ExpensePage(page, token);
+    }
+
+    @Override
+    public void createExpense(ExpenseItem expense) {
+        ExpenseItem previous = expenses.put(expense.getId(), Copies.copy(expense));
+        if (previous != null && previous.getEmail() != null && !previous.getEmail().equals(expense.getEmail())) {
+            expensesByEmail.remove(previous.getEmail(), previous.getId());
+        }
+        // Like the GSI, expenses without an email are not indexed.
+        if (expense.getEmail() != null) {
+            expensesByEmail.add(expense.getEmail(), expense.getId());
+        }
+    }
+
+    @Override
+    public List<ExpenseItem> createExpenses(List<ExpenseItem> expenses) {
+        for (ExpenseItem expense : expenses) {
+            createExpense(expense);
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ExpenseItem updateExpense(String expenseId, String title, Double amount) {
+        ExpenseItem updated = expenses.computeIfPresent(expenseId, (id, current) -> {
+            ExpenseItem next = Copies.copy(current);
+            if (title != null && !title.isEmpty()) {
+                next.setTitle(title);
+            }
+            if (amount != null) {
+                next.setAmount(amount);
+            }
+            return next;
+        });
+        return Copies.copy(updated);
+    }
+
+    @Override
+    public ExpenseItem deleteExpense(String expenseId) {
+        ExpenseItem removed = expenses.remove(expenseId);
+        if (removed != null && removed.getEmail() != null) {
+            expensesByEmail.remove(removed.getEmail(), expenseId);
+        }
+        return Copies.copy(removed);
+    }
+
+    @Override
+    public void createExpenseList(String expenseListId, String email, String title) {
+        ExpenseItemList list = new ExpenseItemList();
+        list.setId(expenseListId);
+        list.setEmail(email);
+        list.setTitle(title);
+        list.setVersion(1L);
+        ExpenseItemList previous = lists.put(expenseListId, list);
+        if (previous != null && previous.getEmail() != null && !previous.getEmail().equals(email)) {
+            listsByEmail.remove(previous.getEmail(), expenseListId);
+        }
+        if (email != null) {
+            listsByEmail.add(email, expenseListId);
+        }
+    }
+
+    @Override
+    public ExpenseItemList addExpenseItemToList(String id, ExpenseItem item) {
+        ExpenseItemList[] result = new ExpenseItemList[1];
+        lists.computeIfPresent(id, (key, list) -> {
+            if (list.getEmail() == null || !list.getEmail().equals(item.getEmail())
+                    || containsExpense(list, item.getId())) {
+                return list;
+            }
+            ExpenseItemList next = stored(list);
+            next.getExpenseIds().add(item.getId());
+            next.setVersion(nextVersion(list));
+            result[0] = stored(next);
+            return next;
+        });
+        return result[0];
+    }
+
+    @Override
+    public ExpenseItemList removeExpenseItemToList(String id, String expenseId) {
+        ExpenseItemList[] result = new ExpenseItemList[1];
+        lists.computeIfPresent(id, (key, list) -> {
+            if (!containsExpense(list, expenseId)) {
+                return list;
+            }
+            ExpenseItemList next = stored(list);
+            next.getExpenseIds().remove(expenseId);
+            next.setVersion(nextVersion(list));
+            result[0] = stored(next);
+            return next;
+        });
+        return result[0];
+    }
+
+    @Override
+    public List<ExpenseItemList> getExpenseListsByEmail(String email) {
+        List<ExpenseItemList> result = new ArrayList<>();
+        for (String listId : listsByEmail.get(email)) {
+            ExpenseItemList list = lists.get(listId);
+            if (list != null && email.equals(list.getEmail())) {
+                result.add(hydrate(list));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ExpenseItemList getExpenseListById(String id) {
+        ExpenseItemList list = lists.get(id);
+        return list == null ? null : hydrate(list);
+    }
+
+    @Override
+    public ExpenseItemList getExpenseListSummaryById(String id) {
+        ExpenseItemList list = lists.get(id);
+        return list == null ? null : stored(list);
+    }
+
+    @Override
+    public void deleteExpenseItemList(String expenseListId) {
+        ExpenseItemList removed = lists.remove(expenseListId);
+        if (removed != null && removed.getEmail() != null) {
+            listsByEmail.remove(removed.getEmail(), expenseListId);
+        }
+    }
+
+    private ExpenseItemList hydrate(ExpenseItemList list) {
+        ExpenseItemList hydrated = stored(list);
+        List<ExpenseItem> expenseItems = new ArrayList<>();
+        for (String expenseId : hydrated.getExpenseIds()) {
+            ExpenseItem expense = expenses.get(expenseId);
+            if (expense != null) {
+                expenseItems.add(Copies.copy(expense));
+            }
+        }
+        hydrated.setExpenseItems(expenseItems);
+        return hydrated;
+    }
+
+    private static boolean containsExpense(ExpenseItemList list, String expenseId) {
+        return list.getExpenseIds() != null && list.getExpenseIds().contains(expenseId);
+    }
+
+    private static Map<String, AttributeValue> pageKey(ExpenseItem expense) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("Id", new AttributeValue(expense.getId()));
+        key.put("Email", new AttributeValue(expense.getEmail()));
+        if (expense.getExpenseDate() != null) {
+            key.put("ExpenseDate", new AttributeValue(expense.getExpenseDate()));
+        }
+        return key;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static Long nextVersion(ExpenseItemList list) {
+        return list.getVersion() == null ? 1L : list.getVersion() + 1;
+    }
+
+    // Stored lists never carry hydrated expenses, only their ids.
+    private static ExpenseItemList stored(ExpenseItemList list) {
+        ExpenseItemList copy = Copies.copy(list);
+        copy.setExpenseItems(null);
+        if (copy.getExpenseIds() == null) {
+            copy.setExpenseIds(new LinkedHashSet<>());
+        }
+        return copy;
+    }
+}
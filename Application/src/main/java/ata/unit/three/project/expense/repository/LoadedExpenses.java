@@ -0,0 +1,33 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Expenses the current request has already read, handed to a repository that loads many expenses
+ * in one batch so it can leave those out. {@link IdentityMapRepository#loadedExpenses()} is backed
+ * by the request's {@link UnitOfWork}; {@link #NONE} remembers nothing.
+ */
+public interface LoadedExpenses {
+
+    LoadedExpenses NONE = new LoadedExpenses() {
+        @Override
+        public Map<String, ExpenseItem> get(Collection<String> ids) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public void remember(Collection<ExpenseItem> expenses) {
+        }
+    };
+
+    /**
+     * The expenses among {@code ids} that were already loaded.
+     */
+    Map<String, ExpenseItem> get(Collection<String> ids);
+
+    void remember(Collection<ExpenseItem> expenses);
+}
@@ -0,0 +1,37 @@
+package ata.unit.three.project.expense.repository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets a counter that changes on the request path be logged at most once per interval. Callers ask
+ * {@link #due()} after updating their counters and log a snapshot when it returns true.
+ */
+public final class StatsLog {
+
+    public static final long DEFAULT_INTERVAL_MS = 60000L;
+
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextAt;
+
+    public StatsLog(long intervalMillis) {
+        this(intervalMillis, System::nanoTime);
+    }
+
+    StatsLog(long intervalMillis, LongSupplier nanoClock) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.nanoClock = nanoClock;
+        this.nextAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * True for the first call and then at most once per interval, even across threads.
+     */
+    public boolean due() {
+        long now = nanoClock.getAsLong();
+        long next = nextAt.get();
+        return now - next >= 0 && nextAt.compareAndSet(next, now + intervalNanos);
+    }
+}
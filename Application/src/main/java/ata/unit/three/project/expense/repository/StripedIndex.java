@@ -0,0 +1,73 @@
+package ata.unit.three.project.expense.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A concurrent secondary index from a key (an email) to the ids stored under it. Keys are spread
+ * over a fixed number of lock stripes, so writers for different users rarely contend and readers
+ * of a stripe never block each other.
+ */
+final class StripedIndex {
+
+    private final ReadWriteLock[] locks;
+    private final Map<String, Set<String>>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    StripedIndex(int stripeCount) {
+        locks = new ReadWriteLock[stripeCount];
+        stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+            stripes[i] = new HashMap<>();
+        }
+    }
+
+    void add(String key, String id) {
+        int stripe = stripeFor(key);
+        locks[stripe].writeLock().lock();
+        try {
+            stripes[stripe].computeIfAbsent(key, k -> new LinkedHashSet<>()).add(id);
+        } finally {
+            locks[stripe].writeLock().unlock();
+        }
+    }
+
+    void remove(String key, String id) {
+        int stripe = stripeFor(key);
+        locks[stripe].writeLock().lock();
+        try {
+            Set<String> ids = stripes[stripe].get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                stripes[stripe].remove(key);
+            }
+        } finally {
+            locks[stripe].writeLock().unlock();
+        }
+    }
+
+    /**
+     * A copy of the ids under the key, in insertion order.
+     */
+    List<String> get(String key) {
+        int stripe = stripeFor(key);
+        locks[stripe].readLock().lock();
+        try {
+            Set<String> ids = stripes[stripe].get(key);
+            return ids == null ? new ArrayList<>() : new ArrayList<>(ids);
+        } finally {
+            locks[stripe].readLock().unlock();
+        }
+    }
+
+    private int stripeFor(String key) {
+        int hash = key.hashCode();
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % locks.length;
+    }
+}
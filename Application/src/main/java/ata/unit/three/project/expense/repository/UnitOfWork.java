@@ -0,0 +1,157 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The expenses and lists one request has loaded, by id. A second load of the same id in the same
+ * request gets the first result, the same object, instead of another read. Absent items are
+ * remembered too. A unit is opened per request and belongs to the request's thread; reads handed to
+ * other threads take it with them through {@link #bind}. Outside a unit nothing is remembered.
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+    private static final AtomicLong TOTAL_DUPLICATE_LOADS_AVOIDED = new AtomicLong();
+
+    private final Map<String, Optional<ExpenseItem>> expenses = new ConcurrentHashMap<>();
+    private final Map<String, Optional<ExpenseItemList>> lists = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger duplicateLoadsAvoided = new AtomicInteger();
+    private final UnitOfWork outer;
+
+    private UnitOfWork(UnitOfWork outer) {
+        this.outer = outer;
+    }
+
+    public static UnitOfWork begin() {
+        UnitOfWork unit = new UnitOfWork(CURRENT.get());
+        CURRENT.set(unit);
+        return unit;
+    }
+
+    /**
+     * The unit open on this thread, or null.
+     */
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps a read so that it runs in the caller's unit on whichever thread picks it up.
+     */
+    public static <T> Supplier<T> bind(Supplier<T> read) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            return read;
+        }
+        return () -> {
+            UnitOfWork previous = CURRENT.get();
+            CURRENT.set(unit);
+            try {
+                return read.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Duplicate loads avoided by every unit since the container started.
+     */
+    public static long totalDuplicateLoadsAvoided() {
+        return TOTAL_DUPLICATE_LOADS_AVOIDED.get();
+    }
+
+    public int getLoads() {
+        return loads.get();
+    }
+
+    public int getDuplicateLoadsAvoided() {
+        return duplicateLoadsAvoided.get();
+    }
+
+    ExpenseItem expense(String id, Supplier<ExpenseItem> load) {
+        return load(expenses, id, load);
+    }
+
+    ExpenseItemList list(String id, Supplier<ExpenseItemList> load) {
+        return load(lists, id, load);
+    }
+
+    /**
+     * The expenses among {@code ids} this unit already holds, so a batch read can leave them out.
+     */
+    Map<String, ExpenseItem> loadedExpenses(Collection<String> ids) {
+        Map<String, ExpenseItem> loaded = new HashMap<>();
+        for (String id : ids) {
+            Optional<ExpenseItem> expense = expenses.get(id);
+            if (expense != null && expense.isPresent()) {
+                loaded.put(id, expense.get());
+            }
+        }
+        avoided(loaded.size());
+        return loaded;
+    }
+
+    /**
+     * Records an expense read or written outside {@link #expense}; null records that it does not exist.
+     */
+    void remember(String id, ExpenseItem expense) {
+        expenses.put(id, Optional.ofNullable(expense));
+    }
+
+    void rememberList(String id, ExpenseItemList list) {
+        lists.put(id, Optional.ofNullable(list));
+    }
+
+    void forget(String id) {
+        expenses.remove(id);
+    }
+
+    void forgetList(String id) {
+        lists.remove(id);
+    }
+
+    @Override
+    public void close() {
+        restore(outer);
+    }
+
+    private <T> T load(Map<String, Optional<T>> loaded, String id, Supplier<T> load) {
+        Optional<T> known = loaded.get(id);
+        if (known != null) {
+            avoided(1);
+            return known.orElse(null);
+        }
+        loads.incrementAndGet();
+        T value = load.get();
+        // Two threads of one request may race on the same id; both get the first result stored.
+        Optional<T> first = loaded.putIfAbsent(id, Optional.ofNullable(value));
+        return first == null ? value : first.orElse(null);
+    }
+
+    private void avoided(int count) {
+        if (count > 0) {
+            duplicateLoadsAvoided.addAndGet(count);
+            TOTAL_DUPLICATE_LOADS_AVOIDED.addAndGet(count);
+        }
+    }
+
+    private static void restore(UnitOfWork unit) {
+        if (unit == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(unit);
+        }
+    }
+}
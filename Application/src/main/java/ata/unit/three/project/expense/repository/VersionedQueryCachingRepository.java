@@ -0,0 +1,215 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Caches the by-email queries behind a per-email version. A read checks the version first and
+ * serves the cached result while it is unchanged, so a dashboard refresh costs one small read
+ * instead of a GSI query of the user's whole history. Every write made through this repository
+ * increments the version of the email it touched once the write has succeeded.
+ *
+ * <p>The TTL still applies: it bounds how long a result can be served if a version increment fails
+ * and covers the short window in which the email index lags behind the base table. If the version
+ * cannot be read at all, for example before the version table exists, reads bypass the cache.
+ * Hit and miss counts are logged at most once a minute.
+ */
+public class VersionedQueryCachingRepository extends ForwardingExpenseRepository {
+
+    private static final Logger log = LogManager.getLogger();
+
+    private final EmailVersions versions;
+    private final ExpiringLruCache<String, Versioned> results;
+    private final StatsLog statsLog = new StatsLog(StatsLog.DEFAULT_INTERVAL_MS);
+
+    public VersionedQueryCachingRepository(ExpenseRepository delegate, EmailVersions versions,
+                                           int maxEntries, long ttlMillis) {
+        this(delegate, versions, new ExpiringLruCache<>(maxEntries, ttlMillis));
+    }
+
+    VersionedQueryCachingRepository(ExpenseRepository delegate, EmailVersions versions,
+                                    ExpiringLruCache<String, Versioned> results) {
+        super(delegate);
+        this.versions = versions;
+        this.results = results;
+    }
+
+    public CacheStats queryCacheStats() {
+        return results.stats();
+    }
+
+    @Override
+    public List<ExpenseItem> getExpensesByEmail(String email) {
+        String key = "expenses|" + email;
+        Long version = currentVersion(email);
+        if (version == null) {
+            return delegate().getExpensesByEmail(email);
+        }
+        List<ExpenseItem> cached = cached(key, version);
+        if (cached != null) {
+            return Copies.copyExpenses(cached);
+        }
+        List<ExpenseItem> expenses = delegate().getExpensesByEmail(email);
+        results.put(key, new Versioned(version, Copies.copyExpenses(expenses)));
+        return expenses;
+    }
+
+    @Override
+    public ExpensePage getExpensesByEmail(String email, int limit, String nextToken) {
+        String key = "page|" + limit + "|" + nextToken + "|" + email;
+        Long version = currentVersion(email);
+        if (version == null) {
+            return delegate().getExpensesByEmail(email, limit, nextToken);
+        }
+        ExpensePage cached = cached(key, version);
+        if (cached != null) {
+            return copy(cached);
+        }
+        ExpensePage page = delegate().getExpensesByEmail(email, limit, nextToken);
+        results.put(key, new Versioned(version, copy(page)));
+        return page;
+    }
+
+    @Override
+    public List<ExpenseItemList> getExpenseListsByEmail(String email) {
+        String key = "lists|" + email;
+        Long version = currentVersion(email);
+        if (version == null) {
+            return delegate().getExpenseListsByEmail(email);
+        }
+        List<ExpenseItemList> cached = cached(key, version);
+        if (cached != null) {
+            return Copies.copyLists(cached);
+        }
+        List<ExpenseItemList> lists = delegate().getExpenseListsByEmail(email);
+        results.put(key, new Versioned(version, Copies.copyLists(lists)));
+        return lists;
+    }
+
+    @Override
+    public void createExpense(ExpenseItem expense) {
+        delegate().createExpense(expense);
+        changed(expense.getEmail());
+    }
+
+    @Override
+    public List<ExpenseItem> createExpenses(List<ExpenseItem> expenses) {
+        List<ExpenseItem> unwritten = delegate().createExpenses(expenses);
+        // Partly written batches change results too, so every email in the batch moves on.
+        Set<String> emails = new HashSet<>();
+        for (ExpenseItem expense : expenses) {
+            if (emails.add(expense.getEmail())) {
+                changed(expense.getEmail());
+            }
+        }
+        return unwritten;
+    }
+
+    @Override
+    public ExpenseItem updateExpense(String expenseId, String title, Double amount) {
+        ExpenseItem updated = delegate().updateExpense(expenseId, title, amount);
+        if (updated != null) {
+            changed(updated.getEmail());
+        }
+        return updated;
+    }
+
+    @Override
+    public ExpenseItem deleteExpense(String expenseId) {
+        ExpenseItem deleted = delegate().deleteExpense(expenseId);
+        if (deleted != null) {
+            changed(deleted.getEmail());
+        }
+        return deleted;
+    }
+
+    @Override
+    public void createExpenseList(String expenseListId, String email, String title) {
+        delegate().createExpenseList(expenseListId, email, title);
+        changed(email);
+    }
+
+    @Override
+    public ExpenseItemList addExpenseItemToList(String id, ExpenseItem item) {
+        ExpenseItemList list = delegate().addExpenseItemToList(id, item);
+        if (list != null) {
+            changed(list.getEmail());
+        }
+        return list;
+    }
+
+    @Override
+    public ExpenseItemList removeExpenseItemToList(String id, String expenseId) {
+        ExpenseItemList list = delegate().removeExpenseItemToList(id, expenseId);
+        if (list != null) {
+            changed(list.getEmail());
+        }
+        return list;
+    }
+
+    @Override
+    public void deleteExpenseItemList(String expenseListId) {
+        // The delete does not return the owner, so look it up first; only the list row is needed.
+        ExpenseItemList list = delegate().getExpenseListSummaryById(expenseListId);
+        delegate().deleteExpenseItemList(expenseListId);
+        if (list != null) {
+            changed(list.getEmail());
+        }
+    }
+
+    // Without a version nothing can be cached safely, but the query itself can still be answered.
+    private Long currentVersion(String email) {
+        try {
+            return versions.current(email);
+        } catch (RuntimeException e) {
+            log.warn("Could not read version for {}, skipping the query cache: {}", email, e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, long version) {
+        Versioned entry = results.get(key);
+        if (statsLog.due()) {
+            log.info("Query cache: {}", results.stats());
+        }
+        if (entry == null || entry.version != version) {
+            return null;
+        }
+        return (T) entry.value;
+    }
+
+    // The write has already happened, so a failed increment is logged rather than failing the request.
+    private void changed(String email) {
+        if (email == null) {
+            return;
+        }
+        try {
+            versions.increment(email);
+        } catch (RuntimeException e) {
+            log.warn("Could not increment version for {}: {}", email, e.getMessage());
+        }
+    }
+
+    private static ExpensePage copy(ExpensePage page) {
+        return new ExpensePage(Copies.copyExpenses(page.getItems()), page.getNextToken());
+    }
+
+    static final class Versioned {
+        private final long version;
+        private final Object value;
+
+        Versioned(long version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -2,16 +2,21 @@ package ata.unit.three.project.expense.service;
 
 import ata.unit.three.project.expense.dynamodb.ExpenseItem;
 import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
-import ata.unit.three.project.expense.dynamodb.ExpenseServiceRepository;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
 import ata.unit.three.project.expense.lambda.models.Expense;
+import ata.unit.three.project.expense.repository.AsyncExpenseRepository;
+import ata.unit.three.project.expense.repository.ExpenseRepository;
 import ata.unit.three.project.expense.service.exceptions.InvalidDataException;
 import ata.unit.three.project.expense.service.exceptions.ItemNotFoundException;
 import ata.unit.three.project.expense.service.model.ExpenseItemConverter;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 
 import static java.util.UUID.fromString;
@@ -19,14 +24,34 @@ import static java.util.UUID.randomUUID;
 
 public class ExpenseService {
 
-    private ExpenseServiceRepository expenseServiceRepository;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private ExpenseRepository expenseServiceRepository;
     private ExpenseItemConverter expenseItemConverter;
+    private AsyncExpenseRepository asyncRepository;
+    private ListSorter listSorter;
+
+    /**
+     * Reads that could run concurrently run one after the other on the calling thread, and lists
+     * are sorted one at a time.
+     */
+    public ExpenseService(ExpenseRepository expenseServiceRepository,
+                          ExpenseItemConverter expenseItemConverter) {
+        this(expenseServiceRepository, expenseItemConverter,
+                AsyncExpenseRepository.sameThread(expenseServiceRepository), ListSorter.sequential());
+    }
 
     @Inject
-    public ExpenseService(ExpenseServiceRepository expenseServiceRepository,
-                          ExpenseItemConverter expenseItemConverter) {
+    public ExpenseService(ExpenseRepository expenseServiceRepository,
+                          ExpenseItemConverter expenseItemConverter,
+                          AsyncExpenseRepository asyncRepository,
+                          ListSorter listSorter) {
         this.expenseServiceRepository = expenseServiceRepository;
         this.expenseItemConverter = expenseItemConverter;
+        this.asyncRepository = asyncRepository;
+        this.listSorter = listSorter;
     }
 
     public ExpenseItem getExpenseById(String expenseId) {
@@ -43,6 +68,24 @@ public class ExpenseService {
         return expenseServiceRepository.getExpensesByEmail(email);
     }
 
+    /**
+     * Returns one page of a user's expenses. A null limit means {@link #DEFAULT_PAGE_SIZE}.
+     */
+    public ExpensePage getExpensesByEmail(String email, Integer limit, String nextToken) {
+        if (StringUtils.isEmpty(email)) {
+            throw new InvalidDataException("Email is not present");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidDataException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        try {
+            return expenseServiceRepository.getExpensesByEmail(email, pageSize, nextToken);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Next token is invalid");
+        }
+    }
+
     public String createExpense(Expense expense) {
         ExpenseItem expenseItem = expenseItemConverter.convert(expense);
         expenseServiceRepository.createExpense(expenseItem);
@@ -52,24 +95,67 @@ public class ExpenseService {
         return expenseItem.getId();
     }
 
+    /**
+     * Creates up to {@link #MAX_BATCH_SIZE} expenses. Every expense is validated before anything is
+     * written. The returned ids line up with the input; an id is null where that expense could not
+     * be written, so the caller can resend just those.
+     */
+    public List<String> createExpenses(List<Expense> expenses) {
+        if (expenses == null || expenses.isEmpty()) {
+            throw new InvalidDataException("Expenses are not present");
+        }
+        if (expenses.size() > MAX_BATCH_SIZE) {
+            throw new InvalidDataException("At most " + MAX_BATCH_SIZE + " expenses can be created at once");
+        }
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense expense = expenses.get(i);
+            if (expense == null) {
+                throw new InvalidDataException("Expense " + i + " is not present");
+            }
+            if (StringUtils.isEmpty(expense.getEmail())) {
+                throw new InvalidDataException("Expense " + i + ": Email is not present");
+            }
+            if (expense.getAmount() == null) {
+                throw new InvalidDataException("Expense " + i + ": Amount is invalid");
+            }
+        }
+
+        List<ExpenseItem> expenseItems = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            expenseItems.add(expenseItemConverter.convert(expense));
+        }
+        Set<String> unwritten = new HashSet<>();
+        for (ExpenseItem expenseItem : expenseServiceRepository.createExpenses(expenseItems)) {
+            unwritten.add(expenseItem.getId());
+        }
+        List<String> ids = new ArrayList<>(expenseItems.size());
+        for (ExpenseItem expenseItem : expenseItems) {
+            ids.add(unwritten.contains(expenseItem.getId()) ? null : expenseItem.getId());
+        }
+        return ids;
+    }
+
     public void updateExpense(String expenseId, Expense updateExpense) {
         if (StringUtils.isEmpty(expenseId) || isInvalidUuid(expenseId)) {
             throw new InvalidDataException("Expense id is not present");
         }
-        ExpenseItem item = expenseServiceRepository.getExpenseById(expenseId);
+        ExpenseItem item = expenseServiceRepository.updateExpense(expenseId,
+                updateExpense.getTitle(),
+                updateExpense.getAmount());
         if (item == null) {
             throw new ItemNotFoundException("Expense does not exist");
         }
-        expenseServiceRepository.updateExpense(expenseId,
-                updateExpense.getTitle(),
-                updateExpense.getAmount());
     }
 
-    public void deleteExpense(String expenseId) {
+    public ExpenseItem deleteExpense(String expenseId) {
         if (StringUtils.isEmpty(expenseId) || isInvalidUuid(expenseId)) {
             throw new InvalidDataException("Expense id is not present");
         }
-        expenseServiceRepository.deleteExpense(expenseId);
+        ExpenseItem item = expenseServiceRepository.deleteExpense(expenseId);
+        if (item == null) {
+            throw new ItemNotFoundException("Expense does not exist");
+        }
+        return item;
     }
 
     public String createExpenseList(String email, String title) {
@@ -79,8 +165,6 @@ public class ExpenseService {
     }
 
     public void addExpenseItemToList(String id, String expenseId) {
-        // Your Code Here
-
         if (expenseId == null) {
             throw new ItemNotFoundException("Expense ID is null");
         }
@@ -89,31 +173,26 @@ public class ExpenseService {
             throw new ItemNotFoundException("Id is null");
         }
 
-        ExpenseItem expenseItem = expenseServiceRepository.getExpenseById(expenseId);
-        ExpenseItemList expenseItemList = expenseServiceRepository.getExpenseListById(id);
-
+        // The reads are independent, so issue them together and reject bad requests before writing.
+        CompletableFuture<ExpenseItem> expense = asyncRepository.getExpenseById(expenseId);
+        CompletableFuture<ExpenseItemList> list = asyncRepository.getExpenseListSummaryById(id);
+        ExpenseItem expenseItem = AsyncExpenseRepository.join(expense);
+        ExpenseItemList expenseItemList = AsyncExpenseRepository.join(list);
         if (expenseItem == null) {
             throw new ItemNotFoundException("ExpenseItem is null");
         }
-
-        if (expenseItemList == null) {
-            throw new ItemNotFoundException("ExpenseItemList is null");
-        }
-
-        if (!expenseItem.getEmail().equals(expenseItemList.getEmail())) {
-            throw new ItemNotFoundException("ExpenseItem email does not match ExpenseItemList email");
-        }
-
-        if (expenseItemList.getExpenseItems() != null && expenseItemList.getExpenseItems().contains(expenseItem)) {
+        checkListOwnership(expenseItemList, expenseItem);
+        if (containsExpense(expenseItemList, expenseId)) {
             throw new ItemNotFoundException("ExpenseItem is already in the list");
         }
 
-        expenseServiceRepository.addExpenseItemToList(id, expenseItem);
+        // The conditional write still enforces ownership and membership against changes since the reads.
+        if (expenseServiceRepository.addExpenseItemToList(id, expenseItem) == null) {
+            throw new ItemNotFoundException("ExpenseItemList was modified concurrently");
+        }
     }
 
     public void removeExpenseItemFromList(String id, String expenseId) {
-        // Your Code Here
-
         if (expenseId == null) {
             throw new ItemNotFoundException("expenseID null");
         }
@@ -122,13 +201,32 @@ public class ExpenseService {
             throw new ItemNotFoundException("id null");
         }
 
-        ExpenseItem expenseItem = expenseServiceRepository.getExpenseById(expenseId);
-        ExpenseItemList expenseItemList = expenseServiceRepository.getExpenseListById(id);
+        if (expenseServiceRepository.removeExpenseItemToList(id, expenseId) != null) {
+            return;
+        }
 
+        // Both reads only explain the rejection and neither depends on the other, so issue them together.
+        CompletableFuture<ExpenseItem> expense = asyncRepository.getExpenseById(expenseId);
+        CompletableFuture<ExpenseItemList> list = asyncRepository.getExpenseListSummaryById(id);
+        ExpenseItem expenseItem = AsyncExpenseRepository.join(expense);
+        ExpenseItemList expenseItemList = AsyncExpenseRepository.join(list);
         if (expenseItem == null) {
             throw new ItemNotFoundException("ExpenseItem is null");
         }
+        checkListOwnership(expenseItemList, expenseItem);
+        throw new ItemNotFoundException("ExpenseItem does not exist");
+    }
 
+    public List<ExpenseItemList> getExpenseListByEmail(String email) {
+        if (StringUtils.isEmpty(email)) {
+            throw new InvalidDataException("Email is not present");
+        }
+        List <ExpenseItemList> expenseItemList = expenseServiceRepository.getExpenseListsByEmail(email);
+        listSorter.sortNewestFirst(expenseItemList);
+        return expenseItemList;
+    }
+
+    private ExpenseItemList checkListOwnership(ExpenseItemList expenseItemList, ExpenseItem expenseItem) {
         if (expenseItemList == null) {
             throw new ItemNotFoundException("ExpenseItemList is null");
         }
@@ -136,26 +234,22 @@ public class ExpenseService {
         if (!expenseItem.getEmail().equals(expenseItemList.getEmail())) {
             throw new ItemNotFoundException("ExpenseItem email does not match ExpenseItemList email");
         }
-
-        if (!expenseItemList.getExpenseItems().contains(expenseItem)) {
-            throw new ItemNotFoundException("ExpenseItem does not exist");
-        }
-
-        expenseServiceRepository.removeExpenseItemToList(id, expenseItem);
+        return expenseItemList;
     }
 
-    public List<ExpenseItemList> getExpenseListByEmail(String email) {
-        if (StringUtils.isEmpty(email)) {
-            throw new InvalidDataException("Email is not present");
+    private static boolean containsExpense(ExpenseItemList expenseItemList, String expenseId) {
+        if (expenseItemList.getExpenseIds() != null && expenseItemList.getExpenseIds().contains(expenseId)) {
+            return true;
         }
-        List <ExpenseItemList> expenseItemList = expenseServiceRepository.getExpenseListsByEmail(email);
-
-        for (ExpenseItemList itemList : expenseItemList) {
-            if (itemList.getExpenseItems() != null && itemList.getExpenseItems().size() > 0) {
-                Collections.sort(itemList.getExpenseItems(), new SortItems().reversed());
+        if (expenseItemList.getExpenseItems() == null) {
+            return false;
+        }
+        for (ExpenseItem item : expenseItemList.getExpenseItems()) {
+            if (expenseId.equals(item.getId())) {
+                return true;
             }
         }
-        return expenseItemList;
+        return false;
     }
 
     private boolean isInvalidUuid(String uuid) {
@@ -1,6 +1,11 @@
 package ata.unit.three.project.expense.service;
 
 import ata.unit.three.project.App;
+import ata.unit.three.project.expense.dynamodb.ExpenseSchemaBootstrap;
+import ata.unit.three.project.expense.export.ExpenseExporter;
+import ata.unit.three.project.expense.importer.ExpenseCsvImporter;
+import ata.unit.three.project.expense.migration.MigrationRunner;
+import com.amazonaws.services.s3.AmazonS3;
 import dagger.Component;
 import dagger.Module;
 import dagger.Provides;
@@ -13,6 +18,16 @@ import javax.inject.Singleton;
 @Component(modules = {App.class})
 public interface ExpenseServiceComponent {
     ExpenseService expenseService();
+
+    ExpenseSchemaBootstrap schemaBootstrap();
+
+    ExpenseCsvImporter expenseCsvImporter();
+
+    ExpenseExporter expenseExporter();
+
+    MigrationRunner migrationRunner();
+
+    AmazonS3 amazonS3();
 }
 
 
@@ -0,0 +1,87 @@
+package ata.unit.three.project.expense.service;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts the expenses of each of a user's lists newest first. Once the lists hold at least
+ * {@code sequentialCutoff} expenses between them they are split across a fork-join pool; below
+ * that, or with a parallelism of one, the caller sorts them one after the other. Each list is
+ * sorted by a single thread and the lists keep their order, so the result is the same either way.
+ */
+public class ListSorter {
+
+    private final ForkJoinPool pool;
+    private final int sequentialCutoff;
+
+    public ListSorter(int parallelism, int sequentialCutoff) {
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.sequentialCutoff = sequentialCutoff;
+    }
+
+    public static ListSorter sequential() {
+        return new ListSorter(1, Integer.MAX_VALUE);
+    }
+
+    public void sortNewestFirst(List<ExpenseItemList> lists) {
+        long expenses = expenses(lists, 0, lists.size());
+        if (pool == null || lists.size() < 2 || expenses < sequentialCutoff) {
+            sort(lists, 0, lists.size());
+            return;
+        }
+        pool.invoke(new SortTask(lists, 0, lists.size(), expenses));
+    }
+
+    private static void sort(List<ExpenseItemList> lists, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (size(lists.get(i)) > 1) {
+                SortItems.sortNewestFirst(lists.get(i).getExpenseItems());
+            }
+        }
+    }
+
+    private static long expenses(List<ExpenseItemList> lists, int from, int to) {
+        long expenses = 0;
+        for (int i = from; i < to; i++) {
+            expenses += size(lists.get(i));
+        }
+        return expenses;
+    }
+
+    private static int size(ExpenseItemList list) {
+        return list.getExpenseItems() == null ? 0 : list.getExpenseItems().size();
+    }
+
+    private final class SortTask extends RecursiveAction {
+        private final List<ExpenseItemList> lists;
+        private final int from;
+        private final int to;
+        private final long expenses;
+
+        private SortTask(List<ExpenseItemList> lists, int from, int to, long expenses) {
+            this.lists = lists;
+            this.from = from;
+            this.to = to;
+            this.expenses = expenses;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < 2 || expenses < sequentialCutoff) {
+                sort(lists, from, to);
+                return;
+            }
+            // Split by expenses rather than by lists, so one large list does not leave the other half idle.
+            int middle = from + 1;
+            long left = size(lists.get(from));
+            while (middle < to - 1 && left + size(lists.get(middle)) <= expenses / 2) {
+                left += size(lists.get(middle));
+                middle++;
+            }
+            invokeAll(new SortTask(lists, from, middle, left), new SortTask(lists, middle, to, expenses - left));
+        }
+    }
+}
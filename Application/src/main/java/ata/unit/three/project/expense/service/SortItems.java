@@ -1,37 +1,53 @@
 package ata.unit.three.project.expense.service;
 
+import ata.unit.three.project.expense.dynamodb.ExpenseDates;
 import ata.unit.three.project.expense.dynamodb.ExpenseItem;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Date;
-import java.util.Locale;
+import java.util.List;
+import java.util.ListIterator;
 
+/**
+ * Orders expenses by ExpenseDate, oldest first. Dates that cannot be parsed sort before all others.
+ */
 public class SortItems implements Comparator <ExpenseItem> {
 
     @Override
     public int compare(ExpenseItem o1, ExpenseItem o2) {
-        Date dateOne = new Date();
-        Date dateTwo = new Date();
-        try {
-            dateOne = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ENGLISH)
-                    .parse(o1.getExpenseDate());
-            dateTwo = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ENGLISH)
-                    .parse(o2.getExpenseDate());
-
-            if (dateOne.before(dateTwo)) {
-                return -1;
-            } else if (dateOne.after(dateTwo)) {
-                return 1;
-            } else {
-                return 0;
-            }
-        } catch (ParseException e) {
-            e.printStackTrace();
+        return Long.compare(ExpenseDates.toEpochMillis(o1.getExpenseDate()),
+                ExpenseDates.toEpochMillis(o2.getExpenseDate()));
+    }
+
+    /**
+     * Sorts the list in place, newest first. Each date is parsed once up front and the sort only
+     * compares longs. Items with equal dates keep their relative order.
+     */
+    public static void sortNewestFirst(List<ExpenseItem> items) {
+        if (items.size() < 2) {
+            return;
+        }
+        Keyed[] keyed = new Keyed[items.size()];
+        int i = 0;
+        for (ExpenseItem item : items) {
+            keyed[i++] = new Keyed(ExpenseDates.toEpochMillis(item.getExpenseDate()), item);
+        }
+        Arrays.sort(keyed, (a, b) -> Long.compare(b.key, a.key));
+
+        ListIterator<ExpenseItem> iterator = items.listIterator();
+        for (Keyed entry : keyed) {
+            iterator.next();
+            iterator.set(entry.item);
         }
+    }
 
-        return dateOne.compareTo(dateTwo);
+    private static final class Keyed {
+        private final long key;
+        private final ExpenseItem item;
+
+        private Keyed(long key, ExpenseItem item) {
+            this.key = key;
+            this.item = item;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,11 @@
 package ata.unit.three.project.expense.service.model;
 
+import ata.unit.three.project.expense.dynamodb.ExpenseDates;
 import ata.unit.three.project.expense.dynamodb.ExpenseItem;
 import ata.unit.three.project.expense.lambda.models.Expense;
 import dagger.Provides;
 
 import javax.inject.Inject;
-import java.time.Instant;
 import java.util.UUID;
 
 
@@ -22,7 +22,7 @@ public class ExpenseItemConverter {
         expenseItem.setEmail(expense.getEmail());
         expenseItem.setTitle(expense.getTitle());
         expenseItem.setAmount(expense.getAmount());
-        expenseItem.setExpenseDate(Instant.now().toString());
+        expenseItem.setExpenseDate(ExpenseDates.now());
         return expenseItem;
     }
 }
@@ -0,0 +1,116 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttributeCodecTest {
+
+    @Test
+    void expense_item_round_trips_through_attribute_map() {
+        //GIVEN
+        ExpenseItem expenseItem = expenseItem(12.5);
+
+        //WHEN
+        Map<String, AttributeValue> item = ExpenseItemAttributeCodec.encode(expenseItem);
+        ExpenseItem decoded = ExpenseItemAttributeCodec.decode(item);
+
+        //THEN
+        assertEquals(expenseItem.getId(), item.get("Id").getS());
+        assertEquals("12.5", item.get("Amount").getN());
+        assertEquals(expenseItem.getId(), decoded.getId());
+        assertEquals(expenseItem.getEmail(), decoded.getEmail());
+        assertEquals(expenseItem.getExpenseDate(), decoded.getExpenseDate());
+        assertEquals(expenseItem.getTitle(), decoded.getTitle());
+        assertEquals(expenseItem.getAmount(), decoded.getAmount());
+    }
+
+    @Test
+    void null_attributes_are_omitted() {
+        //GIVEN
+        ExpenseItem expenseItem = new ExpenseItem();
+        expenseItem.setId(UUID.randomUUID().toString());
+
+        //WHEN
+        Map<String, AttributeValue> item = ExpenseItemAttributeCodec.encode(expenseItem);
+
+        //THEN
+        assertEquals(1, item.size());
+        assertNull(ExpenseItemAttributeCodec.decode(item).getAmount());
+    }
+
+    @Test
+    void empty_strings_round_trip_except_in_key_attributes() {
+        //GIVEN
+        ExpenseItem expenseItem = expenseItem(1.0);
+        expenseItem.setTitle("");
+        expenseItem.setExpenseDate("");
+
+        //WHEN
+        Map<String, AttributeValue> item = ExpenseItemAttributeCodec.encode(expenseItem);
+        ExpenseItem decoded = ExpenseItemAttributeCodec.decode(item);
+
+        //THEN
+        assertEquals("", decoded.getTitle());
+        assertFalse(item.containsKey("ExpenseDate"));
+        assertNull(decoded.getExpenseDate());
+    }
+
+    @Test
+    void large_amounts_are_written_in_plain_notation() {
+        //WHEN
+        Map<String, AttributeValue> item = ExpenseItemAttributeCodec.encode(expenseItem(1.0E12));
+
+        //THEN
+        assertEquals("1000000000000", item.get("Amount").getN());
+    }
+
+    @Test
+    void expense_item_list_round_trips_nested_expenses() {
+        //GIVEN
+        List<ExpenseItem> expenseItems = new ArrayList<>();
+        expenseItems.add(expenseItem(1.0));
+        expenseItems.add(expenseItem(2.0));
+        ExpenseItemList expenseItemList = new ExpenseItemList();
+        expenseItemList.setId(UUID.randomUUID().toString());
+        expenseItemList.setEmail("someone@example.com");
+        expenseItemList.setTitle("Trip");
+        expenseItemList.setExpenseItems(expenseItems);
+        expenseItemList.setVersion(3L);
+
+        //WHEN
+        Map<String, AttributeValue> item = ExpenseItemListAttributeCodec.encode(expenseItemList);
+        ExpenseItemList decoded = ExpenseItemListAttributeCodec.decode(item);
+
+        //THEN
+        assertEquals(2, item.get("Expenses").getL().size());
+        assertEquals(expenseItemList, decoded);
+        assertEquals(2, decoded.getExpenseItems().size());
+        assertEquals(expenseItems.get(1).getId(), decoded.getExpenseItems().get(1).getId());
+        assertEquals(expenseItems.get(1).getAmount(), decoded.getExpenseItems().get(1).getAmount());
+        assertEquals("3", item.get("Version").getN());
+        assertEquals(Long.valueOf(3L), decoded.getVersion());
+    }
+
+    @Test
+    void decode_missing_item_returns_null() {
+        assertNull(ExpenseItemAttributeCodec.decode(null));
+    }
+
+    private static ExpenseItem expenseItem(double amount) {
+        ExpenseItem expenseItem = new ExpenseItem();
+        expenseItem.setId(UUID.randomUUID().toString());
+        expenseItem.setEmail("someone@example.com");
+        expenseItem.setExpenseDate(Instant.now().toString());
+        expenseItem.setTitle("Gas");
+        expenseItem.setAmount(amount);
+        return expenseItem;
+    }
+}
@@ -0,0 +1,53 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapacityBudgetTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicLong slept = new AtomicLong();
+    private final CapacityBudget budget = new CapacityBudget(100, now::get, nanos -> {
+        slept.addAndGet(nanos);
+        now.addAndGet(nanos);
+    });
+
+    @Test
+    void consumption_within_budget_does_not_wait() throws InterruptedException {
+        //WHEN
+        budget.consume(60);
+        budget.consume(40);
+
+        //THEN
+        assertEquals(0, slept.get());
+    }
+
+    @Test
+    void overdrawn_budget_waits_until_repaid() throws InterruptedException {
+        //GIVEN
+        budget.consume(100);
+
+        //WHEN
+        budget.consume(50);
+
+        //THEN
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), slept.get());
+    }
+
+    @Test
+    void idle_time_refills_at_most_one_second_of_budget() throws InterruptedException {
+        //GIVEN
+        budget.consume(100);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        //WHEN
+        budget.consume(150);
+
+        //THEN
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), slept.get());
+    }
+}
@@ -0,0 +1,39 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseDatesTest {
+
+    @Test
+    void dates_have_fixed_width() {
+        //WHEN
+        String wholeSecond = ExpenseDates.format(Instant.parse("2021-03-04T05:06:07Z"));
+        String micros = ExpenseDates.format(Instant.parse("2021-03-04T05:06:07.123456Z"));
+
+        //THEN
+        assertEquals("2021-03-04T05:06:07.000Z", wholeSecond);
+        assertEquals("2021-03-04T05:06:07.123Z", micros);
+    }
+
+    @Test
+    void string_order_matches_chronological_order() {
+        //GIVEN
+        String earlier = ExpenseDates.format(Instant.parse("2021-03-04T05:06:07Z"));
+        String later = ExpenseDates.format(Instant.parse("2021-03-04T05:06:07.500Z"));
+
+        //THEN
+        assertTrue(earlier.compareTo(later) < 0);
+    }
+
+    @Test
+    void normalize_accepts_instants_and_plain_dates() {
+        assertEquals("2021-03-04T05:06:07.000Z", ExpenseDates.normalize("2021-03-04T05:06:07Z"));
+        assertEquals("2021-03-04T00:00:00.000Z", ExpenseDates.normalize(" 2021-03-04 "));
+        assertNull(ExpenseDates.normalize("03/04/2021"));
+        assertNull(ExpenseDates.normalize(""));
+    }
+}
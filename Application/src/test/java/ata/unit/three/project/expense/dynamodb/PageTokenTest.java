@@ -0,0 +1,40 @@
+package ata.unit.three.project.expense.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTokenTest {
+
+    @Test
+    void token_round_trips_last_evaluated_key() {
+        //GIVEN
+        Map<String, AttributeValue> lastEvaluatedKey = new HashMap<>();
+        lastEvaluatedKey.put("Id", new AttributeValue("2c5e3c8e-54b5-4e5e-a1f1-8d1f1f0c2a11"));
+        lastEvaluatedKey.put("Email", new AttributeValue("someone+tag@example.com"));
+
+        //WHEN
+        String token = PageToken.encode(lastEvaluatedKey);
+
+        //THEN
+        assertFalse(token.contains("someone"));
+        assertEquals(lastEvaluatedKey, PageToken.decode(token));
+    }
+
+    @Test
+    void last_page_has_no_token() {
+        assertNull(PageToken.encode(null));
+        assertNull(PageToken.encode(new HashMap<>()));
+        assertNull(PageToken.decode(null));
+    }
+
+    @Test
+    void malformed_token_is_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> PageToken.decode("not a token!"));
+        assertThrows(IllegalArgumentException.class, () -> PageToken.decode("bm90IGpzb24"));
+    }
+}
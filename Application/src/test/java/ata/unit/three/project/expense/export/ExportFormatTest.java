@@ -0,0 +1,56 @@
+package ata.unit.three.project.expense.export;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportFormatTest {
+
+    @Test
+    void ndjson_writes_one_object_per_line() throws IOException {
+        //GIVEN
+        StringWriter out = new StringWriter();
+
+        //WHEN
+        try (ExpenseRowWriter rows = ExportFormat.NDJSON.open(out)) {
+            rows.write(expense("1", "Coffee"));
+            rows.write(expense("2", "Lunch"));
+        }
+
+        //THEN
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"1\""));
+        assertTrue(lines[1].contains("\"title\":\"Lunch\""));
+    }
+
+    @Test
+    void csv_writes_header_and_quotes_only_when_needed() throws IOException {
+        //GIVEN
+        StringWriter out = new StringWriter();
+
+        //WHEN
+        try (ExpenseRowWriter rows = ExportFormat.CSV.open(out)) {
+            rows.write(expense("1", "Lunch, with tax"));
+        }
+
+        //THEN
+        String[] lines = out.toString().split("\n");
+        assertEquals("id,email,expenseDate,title,amount", lines[0]);
+        assertEquals("1,someone@example.com,2021-03-04T00:00:00.000Z,\"Lunch, with tax\",12.5", lines[1]);
+    }
+
+    private static ExpenseItem expense(String id, String title) {
+        ExpenseItem expense = new ExpenseItem();
+        expense.setId(id);
+        expense.setEmail("someone@example.com");
+        expense.setExpenseDate("2021-03-04T00:00:00.000Z");
+        expense.setTitle(title);
+        expense.setAmount(12.5);
+        return expense;
+    }
+}
@@ -0,0 +1,97 @@
+package ata.unit.three.project.expense.importer;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.repository.ExpenseRepository;
+import ata.unit.three.project.expense.repository.ForwardingExpenseRepository;
+import ata.unit.three.project.expense.repository.InMemoryExpenseRepository;
+import ata.unit.three.project.expense.service.model.ExpenseItemConverter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseCsvImporterTest {
+
+    private static final String CSV = "Email,Title,Amount,Date\n"
+            + "a@example.com,Coffee,3.50,2021-03-04\n"
+            + "a@example.com,Broken,not a number,2021-03-04\n"
+            + "b@example.com,\"Lunch, with tax\",12,2021-03-05T12:00:00Z\n"
+            + "b@example.com,Dinner,30,\n"
+            + "c@example.com,Taxi,20,03/06/2021\n";
+
+    private final InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+
+    @Test
+    void valid_rows_are_imported_and_invalid_rows_rejected() throws IOException {
+        //GIVEN
+        ExpenseCsvImporter importer = importer(repository);
+
+        //WHEN
+        ImportResult result = importer.importCsv("test.csv", new StringReader(CSV), checkpoints());
+
+        //THEN
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(1, repository.getExpensesByEmail("a@example.com").size());
+        List<ExpenseItem> b = repository.getExpensesByEmail("b@example.com");
+        assertEquals(2, b.size());
+        assertTrue(b.stream().anyMatch(expense -> "Lunch, with tax".equals(expense.getTitle())
+                && "2021-03-05T12:00:00.000Z".equals(expense.getExpenseDate())));
+    }
+
+    @Test
+    void rerun_resumes_after_checkpoint_with_the_same_ids() throws IOException {
+        //GIVEN
+        CheckpointStore checkpoints = checkpoints();
+        ExpenseCsvImporter importer = importer(repository);
+        importer.importCsv("test.csv", new StringReader(CSV), checkpoints);
+        checkpoints.save(2);
+
+        //WHEN
+        ImportResult result = importer.importCsv("test.csv", new StringReader(CSV), checkpoints);
+
+        //THEN
+        assertEquals(2, result.getSkipped());
+        assertEquals(2, result.getImported());
+        assertEquals(5, checkpoints.load());
+        assertEquals(2, repository.getExpensesByEmail("b@example.com").size());
+    }
+
+    @Test
+    void failed_write_stops_import_before_checkpointing_it() throws IOException {
+        //GIVEN
+        AtomicInteger batches = new AtomicInteger();
+        ExpenseCsvImporter importer = importer(new ForwardingExpenseRepository(repository) {
+            @Override
+            public List<ExpenseItem> createExpenses(List<ExpenseItem> expenses) {
+                if (batches.incrementAndGet() > 1) {
+                    throw new IllegalStateException("throttled");
+                }
+                return super.createExpenses(expenses);
+            }
+        });
+        CheckpointStore checkpoints = checkpoints();
+
+        //WHEN
+        assertThrows(IllegalStateException.class,
+                () -> importer.importCsv("test.csv", new StringReader(CSV), checkpoints));
+
+        //THEN
+        assertEquals(1, checkpoints.load());
+    }
+
+    private static ExpenseCsvImporter importer(ExpenseRepository repository) {
+        return new ExpenseCsvImporter(repository, new ExpenseItemConverter(), 1, 2, 1, 1);
+    }
+
+    private static CheckpointStore checkpoints() throws IOException {
+        Path directory = Files.createTempDirectory("import");
+        return new FileCheckpointStore(directory.resolve("test.csv.checkpoint"));
+    }
+}
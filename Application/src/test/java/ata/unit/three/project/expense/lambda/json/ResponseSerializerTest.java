@@ -0,0 +1,86 @@
+package ata.unit.three.project.expense.lambda.json;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseSerializerTest {
+
+    private final ResponseSerializer serializer = new ResponseSerializer(ResponseSerializer.gson(), 1000);
+
+    @Test
+    void output_matches_reflective_gson() {
+        //GIVEN
+        ExpenseItemList list = list(expense("1"), expense("2"));
+        list.setExpenseIds(Collections.singleton("1"));
+        ExpenseItem partial = new ExpenseItem();
+        partial.setId("3");
+
+        //WHEN
+        String lists = serializer.toJson(Collections.singletonList(list));
+        String expense = serializer.toJson(partial);
+
+        //THEN
+        assertEquals(new Gson().toJson(Collections.singletonList(list)), lists);
+        assertEquals(new Gson().toJson(partial), expense);
+    }
+
+    @Test
+    void adapters_read_what_they_write() {
+        //GIVEN
+        ExpenseItemList list = list(expense("1"));
+
+        //WHEN
+        ExpenseItemList read = serializer.getGson().fromJson(serializer.toJson(list), ExpenseItemList.class);
+
+        //THEN
+        assertEquals(list.getId(), read.getId());
+        assertEquals(1, read.getExpenseItems().size());
+        assertEquals(Double.valueOf(12.5), read.getExpenseItems().get(0).getAmount());
+    }
+
+    @Test
+    void oversized_response_is_rejected_and_buffer_is_reusable() {
+        //GIVEN
+        List<ExpenseItem> expenses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expenses.add(expense(String.valueOf(i)));
+        }
+
+        //WHEN / THEN
+        assertThrows(ResponseTooLargeException.class, () -> serializer.toJson(expenses));
+        assertEquals("[]", serializer.toJson(new ArrayList<>()));
+    }
+
+    @Test
+    void null_serializes_as_json_null() {
+        assertEquals("null", serializer.toJson(null));
+    }
+
+    private static ExpenseItemList list(ExpenseItem... expenses) {
+        ExpenseItemList list = new ExpenseItemList();
+        list.setId("list");
+        list.setEmail("someone@example.com");
+        list.setTitle("Trip");
+        list.setExpenseItems(new ArrayList<>(Arrays.asList(expenses)));
+        return list;
+    }
+
+    private static ExpenseItem expense(String id) {
+        ExpenseItem expense = new ExpenseItem();
+        expense.setId(id);
+        expense.setEmail("someone@example.com");
+        expense.setExpenseDate("2021-01-01T00:00:00.000Z");
+        expense.setTitle("Dinner \u00e9");
+        expense.setAmount(12.5);
+        return expense;
+    }
+}
@@ -0,0 +1,97 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionMiddlewareTest {
+
+    private static final String BODY = repeat("{\"email\":\"someone@example.com\",\"title\":\"Lunch\"},", 100);
+
+    private final HandlerFunction handler = MiddlewareChain.of(new CompressionMiddleware(1024))
+            .wrap(request -> new APIGatewayProxyResponseEvent().withStatusCode(200).withBody(BODY));
+
+    @Test
+    void large_body_is_gzipped_for_clients_that_accept_it() throws IOException {
+        //WHEN
+        APIGatewayProxyResponseEvent response = handler.handle(request("gzip, deflate, br"));
+
+        //THEN
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeaders().get("Vary"));
+        assertEquals(BODY, gunzip(Base64.getDecoder().decode(response.getBody())));
+        assertTrue(response.getBody().length() * 10 < BODY.length());
+    }
+
+    @Test
+    void body_is_untouched_without_gzip_in_accept_encoding() {
+        //WHEN
+        APIGatewayProxyResponseEvent response = handler.handle(request("gzip;q=0, *"));
+
+        //THEN
+        assertEquals(BODY, response.getBody());
+        assertNull(response.getHeaders().get("Content-Encoding"));
+    }
+
+    @Test
+    void small_body_is_not_compressed() {
+        //GIVEN
+        HandlerFunction small = MiddlewareChain.of(new CompressionMiddleware(1024))
+                .wrap(request -> new APIGatewayProxyResponseEvent().withStatusCode(200).withBody("[]"));
+
+        //WHEN
+        APIGatewayProxyResponseEvent response = small.handle(request("gzip"));
+
+        //THEN
+        assertEquals("[]", response.getBody());
+        assertNull(response.getIsBase64Encoded());
+    }
+
+    @Test
+    void accept_encoding_is_parsed_with_quality_values() {
+        assertTrue(CompressionMiddleware.acceptsGzip("GZIP"));
+        assertTrue(CompressionMiddleware.acceptsGzip("br;q=1.0, *;q=0.5"));
+        assertFalse(CompressionMiddleware.acceptsGzip("identity"));
+        assertFalse(CompressionMiddleware.acceptsGzip("gzip;q=0"));
+        assertFalse(CompressionMiddleware.acceptsGzip(null));
+    }
+
+    private static HandlerRequest request(String acceptEncoding) {
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent()
+                .withHeaders(Collections.singletonMap("accept-encoding", acceptEncoding));
+        return new HandlerRequest(event, null, new GsonBuilder().create());
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
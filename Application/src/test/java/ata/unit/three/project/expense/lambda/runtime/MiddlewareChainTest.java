@@ -0,0 +1,171 @@
+package ata.unit.three.project.expense.lambda.runtime;
+
+import ata.unit.three.project.expense.repository.UnitOfWork;
+import ata.unit.three.project.expense.service.exceptions.InvalidDataException;
+import ata.unit.three.project.expense.service.exceptions.ItemNotFoundException;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MiddlewareChainTest {
+
+    private final Gson gson = new GsonBuilder().create();
+
+    @Test
+    void middleware_runs_in_declared_order() {
+        //GIVEN
+        List<String> calls = new ArrayList<>();
+        MiddlewareChain chain = MiddlewareChain.of(
+                (request, next) -> {
+                    calls.add("first");
+                    return next.handle(request);
+                },
+                (request, next) -> {
+                    calls.add("second");
+                    return next.handle(request);
+                });
+
+        //WHEN
+        chain.wrap(request -> {
+            calls.add("endpoint");
+            return new APIGatewayProxyResponseEvent().withStatusCode(200);
+        }).handle(request(null));
+
+        //THEN
+        assertEquals(3, calls.size());
+        assertEquals("first", calls.get(0));
+        assertEquals("second", calls.get(1));
+        assertEquals("endpoint", calls.get(2));
+    }
+
+    @Test
+    void unit_of_work_is_open_only_while_the_handler_runs() {
+        //GIVEN
+        List<UnitOfWork> seen = new ArrayList<>();
+        HandlerFunction handler = MiddlewareChain.of(new UnitOfWorkMiddleware())
+                .wrap(request -> {
+                    seen.add(UnitOfWork.current());
+                    return new APIGatewayProxyResponseEvent().withStatusCode(200);
+                });
+
+        //WHEN
+        handler.handle(request(null));
+        handler.handle(request(null));
+
+        //THEN
+        assertNotNull(seen.get(0));
+        assertNotSame(seen.get(0), seen.get(1));
+        assertNull(UnitOfWork.current());
+    }
+
+    @Test
+    void body_parsing_exposes_body_fields() {
+        //GIVEN
+        HandlerFunction handler = MiddlewareChain.of(new BodyParsingMiddleware())
+                .wrap(request -> new APIGatewayProxyResponseEvent()
+                        .withStatusCode(200)
+                        .withBody(request.bodyField("expenseListId")));
+
+        //WHEN
+        APIGatewayProxyResponseEvent response = handler.handle(request("{\"expenseListId\":\"abc\"}"));
+
+        //THEN
+        assertEquals("abc", response.getBody());
+    }
+
+    @Test
+    void base64_encoded_body_is_decoded_before_parsing() {
+        //GIVEN
+        HandlerFunction handler = MiddlewareChain.of(new BodyParsingMiddleware())
+                .wrap(request -> new APIGatewayProxyResponseEvent()
+                        .withStatusCode(200)
+                        .withBody(request.bodyField("expenseListId")));
+        String encoded = Base64.getEncoder()
+                .encodeToString("{\"expenseListId\":\"abc\"}".getBytes(StandardCharsets.UTF_8));
+
+        //WHEN
+        APIGatewayProxyResponseEvent response = handler.handle(new HandlerRequest(
+                new APIGatewayProxyRequestEvent().withBody(encoded).withIsBase64Encoded(true), null, gson));
+
+        //THEN
+        assertEquals("abc", response.getBody());
+    }
+
+    @Test
+    void base64_encoded_body_is_logged_decoded() {
+        //GIVEN
+        String encoded = Base64.getEncoder()
+                .encodeToString("{\"expenseListId\":\"abc\"}".getBytes(StandardCharsets.UTF_8));
+        HandlerRequest request = new HandlerRequest(
+                new APIGatewayProxyRequestEvent().withBody(encoded).withIsBase64Encoded(true), null, gson);
+
+        //WHEN
+        String logged = RequestLoggingMiddleware.describe(request);
+
+        //THEN
+        assertTrue(logged.contains("expenseListId"));
+        assertFalse(logged.contains(encoded));
+    }
+
+    @Test
+    void malformed_body_is_mapped_to_bad_request() {
+        //GIVEN
+        HandlerFunction handler = MiddlewareChain.of(new ErrorMappingMiddleware(), new BodyParsingMiddleware())
+                .wrap(request -> new APIGatewayProxyResponseEvent().withStatusCode(200));
+
+        //WHEN
+        APIGatewayProxyResponseEvent response = handler.handle(request("{not json"));
+
+        //THEN
+        assertEquals(400, response.getStatusCode());
+    }
+
+    @Test
+    void service_exceptions_are_mapped_to_status_codes() {
+        //GIVEN
+        MiddlewareChain chain = MiddlewareChain.of(new ErrorMappingMiddleware());
+
+        //WHEN
+        APIGatewayProxyResponseEvent invalid = chain.wrap(request -> {
+            throw new InvalidDataException("Email is not present");
+        }).handle(request(null));
+        APIGatewayProxyResponseEvent missing = chain.wrap(request -> {
+            throw new ItemNotFoundException("Expense does not exist");
+        }).handle(request(null));
+
+        //THEN
+        assertEquals(400, invalid.getStatusCode());
+        assertTrue(invalid.getBody().contains("Email is not present"));
+        assertEquals(404, missing.getStatusCode());
+    }
+
+    @Test
+    void default_headers_do_not_override_handler_headers() {
+        //GIVEN
+        HandlerFunction handler = MiddlewareChain.of(
+                new ResponseHeadersMiddleware(Collections.singletonMap("Content-Type", "application/json")))
+                .wrap(request -> new APIGatewayProxyResponseEvent()
+                        .withStatusCode(200)
+                        .withHeaders(Collections.singletonMap("Content-Type", "text/plain")));
+
+        //WHEN
+        APIGatewayProxyResponseEvent response = handler.handle(request(null));
+
+        //THEN
+        assertEquals("text/plain", response.getHeaders().get("Content-Type"));
+    }
+
+    private HandlerRequest request(String body) {
+        return new HandlerRequest(new APIGatewayProxyRequestEvent().withBody(body), null, gson);
+    }
+}
@@ -0,0 +1,54 @@
+package ata.unit.three.project.expense.migration;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalPutsTest {
+
+    @Test
+    void put_is_conditioned_only_on_the_attributes_that_change() {
+        //GIVEN
+        Map<String, AttributeValue> original = new HashMap<>();
+        original.put("Id", new AttributeValue("1"));
+        original.put("Title", new AttributeValue("Coffee"));
+        original.put("ExpenseDate", new AttributeValue("2021-03-04T10:15:30Z"));
+        Map<String, AttributeValue> migrated = new HashMap<>(original);
+        migrated.put("ExpenseDate", new AttributeValue("2021-03-04T10:15:30.000Z"));
+        migrated.put("Version", new AttributeValue().withN("1"));
+
+        //WHEN
+        Put put = ConditionalPuts.put("Expense", "Id", original, migrated);
+
+        //THEN
+        assertEquals("attribute_exists(#key) AND #a0 = :a0 AND attribute_not_exists(#a1)",
+                put.getConditionExpression());
+        assertEquals("ExpenseDate", put.getExpressionAttributeNames().get("#a0"));
+        assertEquals("Version", put.getExpressionAttributeNames().get("#a1"));
+        assertEquals(original.get("ExpenseDate"), put.getExpressionAttributeValues().get(":a0"));
+        assertEquals(1, put.getExpressionAttributeValues().size());
+        assertSame(migrated, put.getItem());
+    }
+
+    @Test
+    void put_checks_removed_attributes_still_hold_their_old_value() {
+        //GIVEN
+        Map<String, AttributeValue> original = new HashMap<>();
+        original.put("Id", new AttributeValue("1"));
+        original.put("Expenses", new AttributeValue().withL(Collections.emptyList()));
+        Map<String, AttributeValue> migrated = Collections.singletonMap("Id", new AttributeValue("1"));
+
+        //WHEN
+        Put put = ConditionalPuts.put("ExpenseList", "Id", original, migrated);
+
+        //THEN
+        assertEquals("attribute_exists(#key) AND #a0 = :a0", put.getConditionExpression());
+        assertEquals("Expenses", put.getExpressionAttributeNames().get("#a0"));
+    }
+}
@@ -0,0 +1,104 @@
+package ata.unit.three.project.expense.migration;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemAttributeCodec;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemListAttributeCodec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationsTest {
+
+    @Test
+    void normalize_expense_dates_rewrites_short_instants_and_keeps_unknown_attributes() {
+        //GIVEN
+        Map<String, AttributeValue> item = ExpenseItemAttributeCodec.encode(expense("1", "2021-03-04T10:15:30Z"));
+        item.put("Legacy", new AttributeValue("kept"));
+
+        //WHEN
+        Map<String, AttributeValue> migrated = Migrations.byName("normalize-expense-dates").migrate(item);
+
+        //THEN
+        assertEquals("2021-03-04T10:15:30.000Z", migrated.get(ExpenseItemAttributeCodec.EXPENSE_DATE).getS());
+        assertEquals("kept", migrated.get("Legacy").getS());
+        assertEquals(item.get(ExpenseItemAttributeCodec.TITLE), migrated.get(ExpenseItemAttributeCodec.TITLE));
+    }
+
+    @Test
+    void normalize_expense_dates_leaves_normalized_and_unparseable_dates_alone() {
+        //GIVEN
+        Migration migration = new NormalizeExpenseDates();
+
+        //WHEN
+        Map<String, AttributeValue> normalized = migration.migrate(
+                ExpenseItemAttributeCodec.encode(expense("1", "2021-03-04T10:15:30.000Z")));
+        Map<String, AttributeValue> unparseable = migration.migrate(
+                ExpenseItemAttributeCodec.encode(expense("2", "last tuesday")));
+
+        //THEN
+        assertNull(normalized);
+        assertNull(unparseable);
+    }
+
+    @Test
+    void embedded_expenses_to_ids_merges_ids_and_drops_embedded_expenses() {
+        //GIVEN
+        ExpenseItemList list = new ExpenseItemList();
+        list.setId("list");
+        list.setEmail("someone@example.com");
+        list.setTitle("Trip");
+        list.setExpenseIds(new HashSet<>(Collections.singletonList("3")));
+        list.setExpenseItems(Arrays.asList(expense("1", "2021-03-04T00:00:00.000Z"),
+                expense("3", "2021-03-05T00:00:00.000Z")));
+
+        //WHEN
+        Map<String, AttributeValue> migrated = new EmbeddedExpensesToIds()
+                .migrate(ExpenseItemListAttributeCodec.encode(list));
+
+        //THEN
+        ExpenseItemList result = ExpenseItemListAttributeCodec.decode(migrated);
+        assertNull(result.getExpenseItems());
+        assertEquals(new HashSet<>(Arrays.asList("1", "3")), new HashSet<>(result.getExpenseIds()));
+        assertFalse(migrated.containsKey(ExpenseItemListAttributeCodec.EXPENSE_ITEMS));
+        assertEquals("Trip", result.getTitle());
+        assertEquals(Long.valueOf(1L), result.getVersion());
+    }
+
+    @Test
+    void embedded_expenses_to_ids_skips_lists_already_migrated() {
+        //GIVEN
+        ExpenseItemList list = new ExpenseItemList();
+        list.setId("list");
+        list.setExpenseIds(new HashSet<>(Collections.singletonList("1")));
+
+        //WHEN
+        Map<String, AttributeValue> migrated = new EmbeddedExpensesToIds()
+                .migrate(ExpenseItemListAttributeCodec.encode(list));
+
+        //THEN
+        assertNull(migrated);
+    }
+
+    @Test
+    void by_name_rejects_unknown_migrations() {
+        //WHEN //THEN
+        assertThrows(IllegalArgumentException.class, () -> Migrations.byName("drop-everything"));
+    }
+
+    private static ExpenseItem expense(String id, String date) {
+        ExpenseItem expense = new ExpenseItem();
+        expense.setId(id);
+        expense.setEmail("someone@example.com");
+        expense.setExpenseDate(date);
+        expense.setTitle("Coffee");
+        expense.setAmount(3.5);
+        return expense;
+    }
+}
@@ -0,0 +1,33 @@
+package ata.unit.three.project.expense.migration;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentCheckpointsTest {
+
+    @Test
+    void checkpoints_resume_each_segment_from_its_saved_key() throws Exception {
+        //GIVEN
+        Path file = Files.createTempDirectory("migration").resolve("test.checkpoint");
+        SegmentCheckpoints checkpoints = new SegmentCheckpoints(file);
+        checkpoints.start(2);
+        checkpoints.save(0, Collections.singletonMap("Id", new AttributeValue("42")));
+        checkpoints.save(1, null);
+
+        //WHEN
+        SegmentCheckpoints resumed = new SegmentCheckpoints(file);
+
+        //THEN
+        assertEquals("42", resumed.startKey(0).get("Id").getS());
+        assertFalse(resumed.isDone(0));
+        assertTrue(resumed.isDone(1));
+        assertNull(resumed.startKey(1));
+        assertThrows(IllegalStateException.class, () -> resumed.start(4));
+    }
+}
@@ -0,0 +1,82 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncExpenseRepositoryTest {
+
+    private final InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+
+    @Test
+    void reads_complete_with_the_repository_values() {
+        //GIVEN
+        ExpenseItem expense = new ExpenseItem();
+        expense.setId(UUID.randomUUID().toString());
+        expense.setEmail("someone@example.com");
+        expense.setExpenseDate("2021-01-01T00:00:00.000Z");
+        repository.createExpense(expense);
+        String listId = UUID.randomUUID().toString();
+        repository.createExpenseList(listId, "someone@example.com", "Trip");
+        AsyncExpenseRepository async = new AsyncExpenseRepository(repository,
+                AsyncExpenseRepository.boundedExecutor(2));
+
+        //WHEN
+        CompletableFuture<ExpenseItem> expenseRead = async.getExpenseById(expense.getId());
+        CompletableFuture<ExpenseItemList> listRead = async.getExpenseListSummaryById(listId);
+
+        //THEN
+        assertEquals(expense.getId(), AsyncExpenseRepository.join(expenseRead).getId());
+        assertEquals("Trip", AsyncExpenseRepository.join(listRead).getTitle());
+        assertNull(AsyncExpenseRepository.join(async.getExpenseById(UUID.randomUUID().toString())));
+    }
+
+    @Test
+    void join_rethrows_the_read_exception_unwrapped() {
+        //GIVEN
+        CompletableFuture<ExpenseItem> failed = CompletableFuture.supplyAsync(() -> {
+            throw new IllegalStateException("throttled");
+        });
+
+        //WHEN
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> AsyncExpenseRepository.join(failed));
+
+        //THEN
+        assertEquals("throttled", exception.getMessage());
+    }
+
+    @Test
+    void saturated_executor_runs_reads_on_the_caller() throws InterruptedException {
+        //GIVEN
+        Executor executor = AsyncExpenseRepository.boundedExecutor(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        //WHEN
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+        release.countDown();
+
+        //THEN
+        assertSame(Thread.currentThread(), ranOn.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
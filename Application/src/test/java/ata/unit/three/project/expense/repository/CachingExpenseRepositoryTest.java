@@ -0,0 +1,140 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingExpenseRepositoryTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CountingRepository backend = new CountingRepository();
+    private final CachingExpenseRepository repository =
+            new CachingExpenseRepository(backend, new ExpiringLruCache<>(2, 1000, now::get));
+
+    @Test
+    void repeat_reads_are_served_from_cache() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        backend.createExpense(expense);
+
+        //WHEN
+        repository.getExpenseById(expense.getId());
+        ExpenseItem second = repository.getExpenseById(expense.getId());
+
+        //THEN
+        assertEquals(1, backend.reads);
+        assertEquals(expense.getId(), second.getId());
+        assertEquals(1, repository.expenseCacheStats().getHits());
+        assertEquals(1, repository.expenseCacheStats().getMisses());
+    }
+
+    @Test
+    void entries_expire_after_ttl() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        backend.createExpense(expense);
+        repository.getExpenseById(expense.getId());
+
+        //WHEN
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        repository.getExpenseById(expense.getId());
+
+        //THEN
+        assertEquals(2, backend.reads);
+        assertEquals(1, repository.expenseCacheStats().getEvictions());
+    }
+
+    @Test
+    void least_recently_used_entry_is_evicted() {
+        //GIVEN
+        ExpenseItem first = expense();
+        ExpenseItem second = expense();
+        ExpenseItem third = expense();
+        backend.createExpense(first);
+        backend.createExpense(second);
+        backend.createExpense(third);
+
+        //WHEN
+        repository.getExpenseById(first.getId());
+        repository.getExpenseById(second.getId());
+        repository.getExpenseById(first.getId());
+        repository.getExpenseById(third.getId());
+        repository.getExpenseById(first.getId());
+        repository.getExpenseById(second.getId());
+
+        //THEN
+        assertEquals(4, backend.reads);
+        assertEquals(2, repository.expenseCacheStats().getEvictions());
+    }
+
+    @Test
+    void writes_refresh_or_drop_the_cached_copy() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        repository.createExpense(expense);
+
+        //WHEN / THEN
+        assertEquals(100.0, repository.updateExpense(expense.getId(), null, 100.0).getAmount().doubleValue());
+        assertEquals(100.0, repository.getExpenseById(expense.getId()).getAmount().doubleValue());
+        assertEquals(0, backend.reads);
+
+        repository.deleteExpense(expense.getId());
+        assertNull(repository.getExpenseById(expense.getId()));
+        assertEquals(1, backend.reads);
+    }
+
+    @Test
+    void batch_writes_do_not_evict_cached_expenses() {
+        //GIVEN
+        ExpenseItem hot = expense();
+        repository.createExpense(hot);
+
+        //WHEN
+        repository.createExpenses(Arrays.asList(expense(), expense(), expense()));
+
+        //THEN
+        repository.getExpenseById(hot.getId());
+        assertEquals(0, backend.reads);
+        assertEquals(1, repository.expenseCacheStats().getHits());
+    }
+
+    @Test
+    void callers_cannot_change_cached_items() {
+        ExpenseItem expense = expense();
+        repository.createExpense(expense);
+
+        repository.getExpenseById(expense.getId()).setTitle("changed");
+
+        assertEquals("Title", repository.getExpenseById(expense.getId()).getTitle());
+    }
+
+    private static ExpenseItem expense() {
+        ExpenseItem expense = new ExpenseItem();
+        expense.setId(UUID.randomUUID().toString());
+        expense.setEmail("someone@example.com");
+        expense.setExpenseDate("2021-01-01T00:00:00.000Z");
+        expense.setTitle("Title");
+        expense.setAmount(10.0);
+        return expense;
+    }
+
+    private static final class CountingRepository extends ForwardingExpenseRepository {
+        private int reads;
+
+        private CountingRepository() {
+            super(new InMemoryExpenseRepository());
+        }
+
+        @Override
+        public ExpenseItem getExpenseById(String expenseId) {
+            reads++;
+            return super.getExpenseById(expenseId);
+        }
+    }
+}
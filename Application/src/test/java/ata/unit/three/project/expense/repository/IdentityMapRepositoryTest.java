@@ -0,0 +1,162 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityMapRepositoryTest {
+
+    private static final String EMAIL = "someone@example.com";
+
+    private final CountingRepository counting = new CountingRepository(new InMemoryExpenseRepository());
+    private final IdentityMapRepository repository = new IdentityMapRepository(counting);
+
+    @Test
+    void second_load_in_a_unit_returns_the_same_object_without_reading() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        counting.createExpense(expense);
+
+        //WHEN
+        ExpenseItem first;
+        ExpenseItem second;
+        ExpenseItem missing;
+        int avoided;
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            first = repository.getExpenseById(expense.getId());
+            second = repository.getExpenseById(expense.getId());
+            repository.getExpenseById("missing");
+            missing = repository.getExpenseById("missing");
+            avoided = unit.getDuplicateLoadsAvoided();
+        }
+
+        //THEN
+        assertSame(first, second);
+        assertNull(missing);
+        assertEquals(2, counting.expenseReads);
+        assertEquals(2, avoided);
+        assertNull(UnitOfWork.current());
+    }
+
+    @Test
+    void loaded_expenses_follow_the_open_unit() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        LoadedExpenses loaded = IdentityMapRepository.loadedExpenses();
+
+        //WHEN
+        Map<String, ExpenseItem> inUnit;
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            loaded.remember(Collections.singletonList(expense));
+            inUnit = loaded.get(Collections.singletonList(expense.getId()));
+        }
+        Map<String, ExpenseItem> outsideUnit = loaded.get(Collections.singletonList(expense.getId()));
+
+        //THEN
+        assertSame(expense, inUnit.get(expense.getId()));
+        assertTrue(outsideUnit.isEmpty());
+    }
+
+    @Test
+    void without_a_unit_every_load_reads() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        counting.createExpense(expense);
+
+        //WHEN
+        repository.getExpenseById(expense.getId());
+        repository.getExpenseById(expense.getId());
+
+        //THEN
+        assertEquals(2, counting.expenseReads);
+    }
+
+    @Test
+    void writes_keep_the_unit_in_step() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        counting.createExpense(expense);
+        String listId = UUID.randomUUID().toString();
+        counting.createExpenseList(listId, EMAIL, "Trip");
+
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            repository.getExpenseById(expense.getId());
+            repository.getExpenseListById(listId);
+
+            //WHEN
+            repository.updateExpense(expense.getId(), "Lunch", null);
+            repository.addExpenseItemToList(listId, expense);
+            ExpenseItem updated = repository.getExpenseById(expense.getId());
+            ExpenseItemList list = repository.getExpenseListById(listId);
+            repository.deleteExpense(expense.getId());
+
+            //THEN
+            assertEquals("Lunch", updated.getTitle());
+            assertEquals(1, list.getExpenseItems().size());
+            assertNull(repository.getExpenseById(expense.getId()));
+            assertEquals(1, counting.expenseReads);
+            assertEquals(2, counting.listReads);
+        }
+    }
+
+    @Test
+    void bound_reads_on_other_threads_share_the_unit() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        counting.createExpense(expense);
+
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            ExpenseItem loaded = repository.getExpenseById(expense.getId());
+
+            //WHEN
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            ExpenseItem elsewhere = CompletableFuture.supplyAsync(
+                    UnitOfWork.bind(() -> repository.getExpenseById(expense.getId())), executor).join();
+            executor.shutdown();
+
+            //THEN
+            assertSame(loaded, elsewhere);
+            assertEquals(1, counting.expenseReads);
+        }
+    }
+
+    private static ExpenseItem expense() {
+        ExpenseItem expense = new ExpenseItem();
+        expense.setId(UUID.randomUUID().toString());
+        expense.setEmail(EMAIL);
+        expense.setExpenseDate("2021-01-01T00:00:00.000Z");
+        expense.setTitle("Coffee");
+        expense.setAmount(3.5);
+        return expense;
+    }
+
+    private static final class CountingRepository extends ForwardingExpenseRepository {
+        private int expenseReads;
+        private int listReads;
+
+        private CountingRepository(ExpenseRepository delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public ExpenseItem getExpenseById(String expenseId) {
+            expenseReads++;
+            return super.getExpenseById(expenseId);
+        }
+
+        @Override
+        public ExpenseItemList getExpenseListById(String id) {
+            listReads++;
+            return super.getExpenseListById(id);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryExpenseRepositoryTest {
+
+    private static final String EMAIL = "someone@example.com";
+
+    private final InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+
+    @Test
+    void missing_items_return_null() {
+        String id = UUID.randomUUID().toString();
+
+        assertNull(repository.getExpenseById(id));
+        assertNull(repository.updateExpense(id, "title", 1.0));
+        assertNull(repository.deleteExpense(id));
+        assertNull(repository.getExpenseListById(id));
+        assertNull(repository.getExpenseListSummaryById(id));
+        assertNull(repository.removeExpenseItemToList(id, id));
+    }
+
+    @Test
+    void update_only_changes_present_fields() {
+        //GIVEN
+        ExpenseItem expense = expense("2021-01-01T00:00:00.000Z");
+        repository.createExpense(expense);
+
+        //WHEN
+        ExpenseItem updated = repository.updateExpense(expense.getId(), null, 99.0);
+
+        //THEN
+        assertEquals(expense.getTitle(), updated.getTitle());
+        assertEquals(Double.valueOf(99.0), repository.getExpenseById(expense.getId()).getAmount());
+    }
+
+    @Test
+    void returned_items_are_copies() {
+        //GIVEN
+        ExpenseItem expense = expense("2021-01-01T00:00:00.000Z");
+        repository.createExpense(expense);
+
+        //WHEN
+        repository.getExpenseById(expense.getId()).setTitle("changed");
+        expense.setTitle("changed too");
+
+        //THEN
+        assertEquals("Title", repository.getExpenseById(expense.getId()).getTitle());
+    }
+
+    @Test
+    void expenses_by_email_are_paged_newest_first() {
+        //GIVEN
+        ExpenseItem oldest = expense("2021-01-01T00:00:00.000Z");
+        ExpenseItem middle = expense("2021-01-02T00:00:00.000Z");
+        ExpenseItem newest = expense("2021-01-03T00:00:00.000Z");
+        repository.createExpense(middle);
+        repository.createExpense(oldest);
+        repository.createExpense(newest);
+
+        //WHEN
+        ExpensePage first = repository.getExpensesByEmail(EMAIL, 2, null);
+        ExpensePage second = repository.getExpensesByEmail(EMAIL, 2, first.getNextToken());
+
+        //THEN
+        assertEquals(newest.getId(), first.getItems().get(0).getId());
+        assertEquals(middle.getId(), first.getItems().get(1).getId());
+        assertEquals(1, second.getItems().size());
+        assertEquals(oldest.getId(), second.getItems().get(0).getId());
+        assertNull(second.getNextToken());
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.getExpensesByEmail("other@example.com", 2, first.getNextToken()));
+    }
+
+    @Test
+    void deleted_expenses_leave_the_email_index() {
+        ExpenseItem expense = expense("2021-01-01T00:00:00.000Z");
+        repository.createExpense(expense);
+
+        assertEquals(expense.getId(), repository.deleteExpense(expense.getId()).getId());
+        assertTrue(repository.getExpensesByEmail(EMAIL).isEmpty());
+    }
+
+    @Test
+    void list_membership_follows_conditional_write_rules() {
+        //GIVEN
+        String listId = UUID.randomUUID().toString();
+        repository.createExpenseList(listId, EMAIL, "Trip");
+        ExpenseItem expense = expense("2021-01-01T00:00:00.000Z");
+        repository.createExpense(expense);
+        ExpenseItem otherUsers = expense("2021-01-01T00:00:00.000Z");
+        otherUsers.setEmail("other@example.com");
+
+        //WHEN / THEN
+        assertNotNull(repository.addExpenseItemToList(listId, expense));
+        assertNull(repository.addExpenseItemToList(listId, expense));
+        assertNull(repository.addExpenseItemToList(listId, otherUsers));
+        assertEquals(1, repository.getExpenseListsByEmail(EMAIL).get(0).getExpenseItems().size());
+
+        assertNotNull(repository.removeExpenseItemToList(listId, expense.getId()));
+        assertNull(repository.removeExpenseItemToList(listId, expense.getId()));
+        ExpenseItemList list = repository.getExpenseListById(listId);
+        assertNotNull(list.getExpenseItems());
+        assertTrue(list.getExpenseItems().isEmpty());
+        assertEquals(Long.valueOf(3L), list.getVersion());
+    }
+
+    @Test
+    void list_summary_has_expense_ids_but_no_expenses() {
+        //GIVEN
+        String listId = UUID.randomUUID().toString();
+        repository.createExpenseList(listId, EMAIL, "Trip");
+        ExpenseItem expense = expense("2021-01-01T00:00:00.000Z");
+        repository.createExpense(expense);
+        repository.addExpenseItemToList(listId, expense);
+
+        //WHEN
+        ExpenseItemList summary = repository.getExpenseListSummaryById(listId);
+
+        //THEN
+        assertEquals(EMAIL, summary.getEmail());
+        assertTrue(summary.getExpenseIds().contains(expense.getId()));
+        assertNull(summary.getExpenseItems());
+    }
+
+    @Test
+    void concurrent_adds_are_not_lost() throws InterruptedException {
+        //GIVEN
+        String listId = UUID.randomUUID().toString();
+        repository.createExpenseList(listId, EMAIL, "Trip");
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    ExpenseItem expense = expense("2021-01-01T00:00:00.000Z");
+                    repository.createExpense(expense);
+                    repository.addExpenseItemToList(listId, expense);
+                }
+            }));
+        }
+
+        //WHEN
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //THEN
+        ExpenseItemList list = repository.getExpenseListById(listId);
+        assertEquals(800, list.getExpenseItems().size());
+        assertEquals(Long.valueOf(801L), list.getVersion());
+        assertEquals(800, repository.getExpensesByEmail(EMAIL).size());
+    }
+
+    private static ExpenseItem expense(String expenseDate) {
+        ExpenseItem expense = new ExpenseItem();
+        expense.setId(UUID.randomUUID().toString());
+        expense.setEmail(EMAIL);
+        expense.setExpenseDate(expenseDate);
+        expense.setTitle("Title");
+        expense.setAmount(10.0);
+        return expense;
+    }
+}
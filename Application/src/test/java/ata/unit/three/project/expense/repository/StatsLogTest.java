@@ -0,0 +1,29 @@
+package ata.unit.three.project.expense.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsLogTest {
+
+    @Test
+    void due_once_per_interval() {
+        //GIVEN
+        AtomicLong now = new AtomicLong();
+        StatsLog statsLog = new StatsLog(1000, now::get);
+
+        //WHEN / THEN
+        assertTrue(statsLog.due());
+        assertFalse(statsLog.due());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertFalse(statsLog.due());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(statsLog.due());
+        assertFalse(statsLog.due());
+    }
+}
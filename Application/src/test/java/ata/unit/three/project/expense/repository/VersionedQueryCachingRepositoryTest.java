@@ -0,0 +1,154 @@
+package ata.unit.three.project.expense.repository;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedQueryCachingRepositoryTest {
+
+    private static final String EMAIL = "someone@example.com";
+
+    private final CountingRepository backend = new CountingRepository();
+    private final MapEmailVersions versions = new MapEmailVersions();
+    private final VersionedQueryCachingRepository repository =
+            new VersionedQueryCachingRepository(backend, versions, 100, 60000);
+
+    @Test
+    void unchanged_version_serves_cached_results() {
+        //GIVEN
+        repository.createExpense(expense());
+
+        //WHEN
+        repository.getExpensesByEmail(EMAIL);
+        List<ExpenseItem> second = repository.getExpensesByEmail(EMAIL);
+
+        //THEN
+        assertEquals(1, backend.queries);
+        assertEquals(1, second.size());
+    }
+
+    @Test
+    void write_for_email_invalidates_cached_results() {
+        //GIVEN
+        ExpenseItem expense = expense();
+        repository.createExpense(expense);
+        repository.getExpensesByEmail(EMAIL);
+
+        //WHEN
+        repository.updateExpense(expense.getId(), "Changed", null);
+        List<ExpenseItem> expenses = repository.getExpensesByEmail(EMAIL);
+
+        //THEN
+        assertEquals(2, backend.queries);
+        assertEquals("Changed", expenses.get(0).getTitle());
+    }
+
+    @Test
+    void writes_for_other_emails_keep_cached_results() {
+        //GIVEN
+        repository.createExpenseList(UUID.randomUUID().toString(), EMAIL, "List");
+        repository.getExpenseListsByEmail(EMAIL);
+
+        //WHEN
+        repository.createExpenseList(UUID.randomUUID().toString(), "other@example.com", "List");
+        repository.getExpenseListsByEmail(EMAIL);
+
+        //THEN
+        assertEquals(1, backend.queries);
+    }
+
+    @Test
+    void deleting_a_list_invalidates_its_owner() {
+        //GIVEN
+        String listId = UUID.randomUUID().toString();
+        repository.createExpenseList(listId, EMAIL, "List");
+        repository.getExpenseListsByEmail(EMAIL);
+
+        //WHEN
+        repository.deleteExpenseItemList(listId);
+
+        //THEN
+        assertTrue(repository.getExpenseListsByEmail(EMAIL).isEmpty());
+        assertEquals(2, backend.queries);
+    }
+
+    @Test
+    void unreadable_version_bypasses_the_cache() {
+        //GIVEN
+        repository.createExpense(expense());
+        versions.failure = new IllegalStateException("ExpenseEmailVersion does not exist");
+
+        //WHEN
+        repository.getExpensesByEmail(EMAIL);
+        List<ExpenseItem> second = repository.getExpensesByEmail(EMAIL);
+
+        //THEN
+        assertEquals(2, backend.queries);
+        assertEquals(1, second.size());
+    }
+
+    @Test
+    void callers_cannot_change_cached_results() {
+        repository.createExpenseList(UUID.randomUUID().toString(), EMAIL, "List");
+
+        repository.getExpenseListsByEmail(EMAIL).get(0).setTitle("changed");
+
+        ExpenseItemList list = repository.getExpenseListsByEmail(EMAIL).get(0);
+        assertEquals("List", list.getTitle());
+    }
+
+    private static ExpenseItem expense() {
+        ExpenseItem expense = new ExpenseItem();
+        expense.setId(UUID.randomUUID().toString());
+        expense.setEmail(EMAIL);
+        expense.setExpenseDate("2021-01-01T00:00:00.000Z");
+        expense.setTitle("Title");
+        expense.setAmount(10.0);
+        return expense;
+    }
+
+    private static final class MapEmailVersions implements EmailVersions {
+        private final Map<String, Long> versions = new HashMap<>();
+        private RuntimeException failure;
+
+        @Override
+        public long current(String email) {
+            if (failure != null) {
+                throw failure;
+            }
+            return versions.getOrDefault(email, 0L);
+        }
+
+        @Override
+        public void increment(String email) {
+            versions.merge(email, 1L, Long::sum);
+        }
+    }
+
+    private static final class CountingRepository extends ForwardingExpenseRepository {
+        private int queries;
+
+        private CountingRepository() {
+            super(new InMemoryExpenseRepository());
+        }
+
+        @Override
+        public List<ExpenseItem> getExpensesByEmail(String email) {
+            queries++;
+            return super.getExpensesByEmail(email);
+        }
+
+        @Override
+        public List<ExpenseItemList> getExpenseListsByEmail(String email) {
+            queries++;
+            return super.getExpenseListsByEmail(email);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package ata.unit.three.project.expense.service;
 
 import ata.unit.three.project.expense.dynamodb.ExpenseItem;
 import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
 import ata.unit.three.project.expense.dynamodb.ExpenseServiceRepository;
 import ata.unit.three.project.expense.lambda.models.Expense;
+import ata.unit.three.project.expense.repository.AsyncExpenseRepository;
 import ata.unit.three.project.expense.service.exceptions.InvalidDataException;
 import ata.unit.three.project.expense.service.exceptions.ItemNotFoundException;
 import ata.unit.three.project.expense.service.model.ExpenseItemConverter;
@@ -13,6 +15,10 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.UUID.randomUUID;
 import static org.junit.jupiter.api.Assertions.*;
@@ -150,6 +156,49 @@ class ExpenseServiceTest {
         assertThrows(InvalidDataException.class, () -> expenseService.getExpensesByEmail(email));
     }
 
+    @Test
+    void get_expenses_by_email_page_uses_default_limit() {
+        //GIVEN
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExpenseItemConverter expenseItemConverter = mock(ExpenseItemConverter.class);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, expenseItemConverter);
+
+        String email = mockNeat.emails().val();
+        ExpensePage page = new ExpensePage(new ArrayList<>(), "token");
+        when(expenseServiceRepository.getExpensesByEmail(email, ExpenseService.DEFAULT_PAGE_SIZE, null)).thenReturn(page);
+
+        //WHEN
+        ExpensePage returnedPage = expenseService.getExpensesByEmail(email, null, null);
+
+        //THEN
+        assertEquals(page, returnedPage);
+    }
+
+    @Test
+    void get_expenses_by_email_page_limit_out_of_range_throws_exception() {
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExpenseItemConverter expenseItemConverter = mock(ExpenseItemConverter.class);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, expenseItemConverter);
+
+        String email = mockNeat.emails().val();
+
+        assertThrows(InvalidDataException.class, () -> expenseService.getExpensesByEmail(email, 0, null));
+        assertThrows(InvalidDataException.class,
+                () -> expenseService.getExpensesByEmail(email, ExpenseService.MAX_PAGE_SIZE + 1, null));
+    }
+
+    @Test
+    void get_expenses_by_email_page_invalid_token_throws_exception() {
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExpenseItemConverter expenseItemConverter = mock(ExpenseItemConverter.class);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, expenseItemConverter);
+
+        String email = mockNeat.emails().val();
+        when(expenseServiceRepository.getExpensesByEmail(email, 10, "bad")).thenThrow(new IllegalArgumentException());
+
+        assertThrows(InvalidDataException.class, () -> expenseService.getExpensesByEmail(email, 10, "bad"));
+    }
+
     /** ------------------------------------------------------------------------
      *  expenseService.updateExpense
      *  ------------------------------------------------------------------------ **/
@@ -177,7 +226,7 @@ class ExpenseServiceTest {
 
         Expense newExpense = new Expense(newExpenseItem.getEmail(), newExpenseItem.getTitle(), newExpenseItem.getAmount());
 
-        when(expenseServiceRepository.getExpenseById(anyString())).thenReturn(new ExpenseItem());
+        when(expenseServiceRepository.updateExpense(anyString(), anyString(), anyDouble())).thenReturn(new ExpenseItem());
 
         expenseService.updateExpense(id, newExpense);
     }
@@ -276,7 +325,25 @@ class ExpenseServiceTest {
         expenseItem.setExpenseDate(Instant.now().toString());
         expenseItem.setTitle(mockNeat.strings().val());
 
-        expenseService.deleteExpense(id);
+        when(expenseServiceRepository.deleteExpense(id)).thenReturn(expenseItem);
+
+        ExpenseItem deleted = expenseService.deleteExpense(id);
+
+        assertEquals(expenseItem, deleted);
+    }
+
+    @Test
+    void delete_expense_missing_item_throws_exception() {
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExpenseItemConverter expenseItemConverter = mock(ExpenseItemConverter.class);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, expenseItemConverter);
+
+        String id = UUID.randomUUID().toString();
+
+        when(expenseServiceRepository.deleteExpense(id)).thenReturn(null);
+
+        assertThrows(ItemNotFoundException.class, () -> expenseService.deleteExpense(id));
+        verify(expenseServiceRepository, never()).getExpenseById(anyString());
     }
 
     @Test
@@ -365,6 +432,44 @@ class ExpenseServiceTest {
         assertThrows(InvalidDataException.class, () -> expenseService.createExpense(expense));
     }
 
+    @Test
+    void create_expenses_returns_ids_in_input_order_with_null_for_unwritten() {
+        //GIVEN
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, new ExpenseItemConverter());
+        List<Expense> expenses = Arrays.asList(
+                new Expense(mockNeat.emails().val(), "first", 1.0),
+                new Expense(mockNeat.emails().val(), "second", 2.0),
+                new Expense(mockNeat.emails().val(), "third", 3.0));
+
+        //WHEN
+        when(expenseServiceRepository.createExpenses(anyListOf(ExpenseItem.class))).thenAnswer(invocation -> {
+            List<?> written = (List<?>) invocation.getArguments()[0];
+            return Collections.singletonList(written.get(1));
+        });
+        List<String> ids = expenseService.createExpenses(expenses);
+
+        //THEN
+        assertEquals(3, ids.size());
+        assertNotNull(ids.get(0));
+        assertNull(ids.get(1));
+        assertNotNull(ids.get(2));
+    }
+
+    @Test
+    void create_expenses_with_an_invalid_expense_writes_nothing() {
+        //GIVEN
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, new ExpenseItemConverter());
+        List<Expense> expenses = Arrays.asList(
+                new Expense(mockNeat.emails().val(), "first", 1.0),
+                new Expense(mockNeat.emails().val(), "second", null));
+
+        //WHEN / THEN
+        assertThrows(InvalidDataException.class, () -> expenseService.createExpenses(expenses));
+        verify(expenseServiceRepository, never()).createExpenses(anyListOf(ExpenseItem.class));
+    }
+
     /** ------------------------------------------------------------------------
      *  expenseService.addExpenseItemToList
      *  ------------------------------------------------------------------------ **/
@@ -392,11 +497,77 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.addExpenseItemToList(expenseListId, expenseItem)).thenReturn(expenseItemList);
 
         expenseService.addExpenseItemToList(expenseListId, expenseItem.getId());
 
         verify(expenseServiceRepository).addExpenseItemToList(expenseListId, expenseItem);
+        verify(expenseServiceRepository, never()).getExpenseListById(anyString());
+    }
+
+    @Test
+    void add_expense_item_to_list_reads_expense_and_list_concurrently() {
+        //GIVEN
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, new ExpenseItemConverter(),
+                new AsyncExpenseRepository(expenseServiceRepository, executor), ListSorter.sequential());
+
+        String email = mockNeat.emails().val();
+        ExpenseItem expenseItem = new ExpenseItem();
+        expenseItem.setId(UUID.randomUUID().toString());
+        expenseItem.setEmail(email);
+        ExpenseItemList expenseItemList = new ExpenseItemList();
+        expenseItemList.setId(UUID.randomUUID().toString());
+        expenseItemList.setEmail(email);
+
+        // Each read waits for the other to start, so they only finish if both are in flight at once.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(expenseServiceRepository.getExpenseById(expenseItem.getId())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return expenseItem;
+        });
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseItemList.getId())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return expenseItemList;
+        });
+        when(expenseServiceRepository.addExpenseItemToList(expenseItemList.getId(), expenseItem))
+                .thenReturn(expenseItemList);
+
+        //WHEN
+        expenseService.addExpenseItemToList(expenseItemList.getId(), expenseItem.getId());
+        executor.shutdown();
+
+        //THEN
+        verify(expenseServiceRepository).addExpenseItemToList(expenseItemList.getId(), expenseItem);
+    }
+
+    @Test
+    void add_expense_item_to_list_rejected_write_throws_exception() {
+        //GIVEN
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, new ExpenseItemConverter());
+
+        String email = mockNeat.emails().val();
+        ExpenseItem expenseItem = new ExpenseItem();
+        expenseItem.setId(UUID.randomUUID().toString());
+        expenseItem.setEmail(email);
+        ExpenseItemList expenseItemList = new ExpenseItemList();
+        expenseItemList.setId(UUID.randomUUID().toString());
+        expenseItemList.setEmail(email);
+
+        when(expenseServiceRepository.getExpenseById(expenseItem.getId())).thenReturn(expenseItem);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseItemList.getId())).thenReturn(expenseItemList);
+
+        //WHEN
+        ItemNotFoundException exception = assertThrows(ItemNotFoundException.class,
+                () -> expenseService.addExpenseItemToList(expenseItemList.getId(), expenseItem.getId()));
+
+        //THEN
+        assertEquals("ExpenseItemList was modified concurrently", exception.getMessage());
     }
 
     @Test
@@ -417,7 +588,7 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.addExpenseItemToList(expenseListId, id));
     }
@@ -442,7 +613,7 @@ class ExpenseServiceTest {
         String expenseListId = mockNeat.strings().val();
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.addExpenseItemToList(expenseListId, id));
     }
@@ -470,7 +641,7 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.addExpenseItemToList(expenseListId, id));
     }
@@ -498,7 +669,7 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.addExpenseItemToList(expenseListId, id));
     }
@@ -526,7 +697,7 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.addExpenseItemToList(expenseListId, id));
     }
@@ -554,11 +725,12 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         expenseItemList.setExpenseItems(Collections.singletonList(expenseItem));
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.addExpenseItemToList(expenseListId, id));
+        verify(expenseServiceRepository, never()).addExpenseItemToList(anyString(), any(ExpenseItem.class));
         assertNotNull(expenseItemList.getExpenseItems());
         assertTrue(expenseItemList.getExpenseItems().contains(expenseItem));
     }
@@ -590,13 +762,13 @@ class ExpenseServiceTest {
         expenseItemList.setTitle(mockNeat.strings().val());
         expenseItemList.setId(expenseListId);
 
-        when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.removeExpenseItemToList(expenseListId, id)).thenReturn(expenseItemList);
 
-        expenseItemList.setExpenseItems(Collections.singletonList(expenseItem));
         expenseService.removeExpenseItemFromList(expenseListId, expenseItem.getId());
 
-        verify(expenseServiceRepository).removeExpenseItemToList(expenseListId, expenseItem);
+        verify(expenseServiceRepository).removeExpenseItemToList(expenseListId, id);
+        verify(expenseServiceRepository, never()).getExpenseById(anyString());
+        verify(expenseServiceRepository, never()).getExpenseListSummaryById(anyString());
     }
 
     @Test
@@ -622,7 +794,7 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         expenseItemList.setExpenseItems(Collections.singletonList(expenseItem));
 
@@ -652,7 +824,7 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         expenseItemList.setExpenseItems(Collections.singletonList(expenseItem));
 
@@ -677,7 +849,7 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         expenseItemList.setExpenseItems(Collections.singletonList(expenseItem));
 
@@ -703,7 +875,7 @@ class ExpenseServiceTest {
         String expenseListId = mockNeat.strings().val();
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.removeExpenseItemFromList(expenseListId, expenseItem.getId()));
     }
@@ -731,13 +903,51 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         expenseItemList.setExpenseItems(Collections.singletonList(expenseItem));
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.removeExpenseItemFromList(expenseListId, expenseItem.getId()));
     }
 
+    @Test
+    void remove_expense_item_from_list_rejected_reads_expense_and_list_concurrently() {
+        //GIVEN
+        ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ExpenseService expenseService = new ExpenseService(expenseServiceRepository, new ExpenseItemConverter(),
+                new AsyncExpenseRepository(expenseServiceRepository, executor), ListSorter.sequential());
+
+        String email = mockNeat.emails().val();
+        ExpenseItem expenseItem = new ExpenseItem();
+        expenseItem.setId(UUID.randomUUID().toString());
+        expenseItem.setEmail(email);
+        ExpenseItemList expenseItemList = new ExpenseItemList();
+        expenseItemList.setId(UUID.randomUUID().toString());
+        expenseItemList.setEmail("someone-else@example.com");
+
+        // Each read waits for the other to start, so they only finish if both are in flight at once.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(expenseServiceRepository.getExpenseById(expenseItem.getId())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return expenseItem;
+        });
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseItemList.getId())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return expenseItemList;
+        });
+
+        //WHEN
+        ItemNotFoundException exception = assertThrows(ItemNotFoundException.class,
+                () -> expenseService.removeExpenseItemFromList(expenseItemList.getId(), expenseItem.getId()));
+        executor.shutdown();
+
+        //THEN
+        assertEquals("ExpenseItem email does not match ExpenseItemList email", exception.getMessage());
+    }
+
     @Test
     void remove_expense_item_from_list_item_does_not_exist_throws_exception() {
         ExpenseServiceRepository expenseServiceRepository = mock(ExpenseServiceRepository.class);
@@ -761,7 +971,7 @@ class ExpenseServiceTest {
         expenseItemList.setId(expenseListId);
 
         when(expenseServiceRepository.getExpenseById(id)).thenReturn(expenseItem);
-        when(expenseServiceRepository.getExpenseListById(expenseListId)).thenReturn(expenseItemList);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId)).thenReturn(expenseItemList);
 
         expenseItemList.setExpenseItems(Collections.singletonList(expenseItem));
 
@@ -783,7 +993,7 @@ class ExpenseServiceTest {
 
 
         when(expenseServiceRepository.getExpenseById(id2)).thenReturn(expenseItem2);
-        when(expenseServiceRepository.getExpenseListById(expenseListId2)).thenReturn(expenseItemList2);
+        when(expenseServiceRepository.getExpenseListSummaryById(expenseListId2)).thenReturn(expenseItemList2);
 
         assertThrows(ItemNotFoundException.class, () -> expenseService.removeExpenseItemFromList(expenseListId, expenseItem2.getId()));
         assertFalse(expenseItemList.getExpenseItems().contains(expenseItem2));
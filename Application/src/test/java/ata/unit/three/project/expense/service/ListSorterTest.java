@@ -0,0 +1,85 @@
+package ata.unit.three.project.expense.service;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListSorterTest {
+
+    @Test
+    void parallel_sort_matches_sequential_sort() {
+        //GIVEN
+        List<ExpenseItemList> sequential = lists(new Random(7L));
+        List<ExpenseItemList> parallel = lists(new Random(7L));
+
+        //WHEN
+        ListSorter.sequential().sortNewestFirst(sequential);
+        new ListSorter(4, 100).sortNewestFirst(parallel);
+
+        //THEN
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getId(), parallel.get(i).getId());
+            assertEquals(ids(sequential.get(i)), ids(parallel.get(i)));
+        }
+    }
+
+    @Test
+    void every_list_is_sorted_newest_first_and_empty_lists_are_left_alone() {
+        //GIVEN
+        List<ExpenseItemList> lists = lists(new Random(11L));
+        ExpenseItemList empty = new ExpenseItemList();
+        empty.setId("empty");
+        lists.add(3, empty);
+
+        //WHEN
+        new ListSorter(4, 1).sortNewestFirst(lists);
+
+        //THEN
+        assertNull(empty.getExpenseItems());
+        for (ExpenseItemList list : lists) {
+            List<ExpenseItem> items = list.getExpenseItems() == null
+                    ? Collections.emptyList() : list.getExpenseItems();
+            for (int i = 1; i < items.size(); i++) {
+                assertTrue(items.get(i - 1).getExpenseDate().compareTo(items.get(i).getExpenseDate()) >= 0);
+            }
+        }
+    }
+
+    private static List<ExpenseItemList> lists(Random random) {
+        List<ExpenseItemList> lists = new ArrayList<>();
+        for (int l = 0; l < 12; l++) {
+            ExpenseItemList list = new ExpenseItemList();
+            list.setId("list-" + l);
+            // A few large lists among many small ones, as for the heaviest users.
+            int size = l % 4 == 0 ? 2000 : random.nextInt(20);
+            List<ExpenseItem> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ExpenseItem item = new ExpenseItem();
+                item.setId(list.getId() + "-" + i);
+                // Coarse dates so ties are common and stability shows.
+                item.setExpenseDate(Instant.ofEpochSecond(86400L * random.nextInt(30)).toString());
+                items.add(item);
+            }
+            list.setExpenseItems(items);
+            lists.add(list);
+        }
+        return lists;
+    }
+
+    private static List<String> ids(ExpenseItemList list) {
+        List<String> ids = new ArrayList<>();
+        for (ExpenseItem item : list.getExpenseItems()) {
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+}
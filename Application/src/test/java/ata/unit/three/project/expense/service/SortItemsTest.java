@@ -0,0 +1,61 @@
+package ata.unit.three.project.expense.service;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortItemsTest {
+
+    @Test
+    void sort_newest_first_orders_by_date_descending() {
+        //GIVEN
+        ExpenseItem oldest = expenseItem("a", "2021-01-01T00:00:00.000Z");
+        ExpenseItem newest = expenseItem("b", "2021-01-03T00:00:00Z");
+        ExpenseItem middle = expenseItem("c", "2021-01-02T00:00:00.123456Z");
+        List<ExpenseItem> items = new ArrayList<>(Arrays.asList(oldest, newest, middle));
+
+        //WHEN
+        SortItems.sortNewestFirst(items);
+
+        //THEN
+        assertEquals(Arrays.asList(newest, middle, oldest), items);
+    }
+
+    @Test
+    void malformed_dates_sort_last_and_ties_keep_their_order() {
+        //GIVEN
+        ExpenseItem malformed = expenseItem("a", "yesterday");
+        ExpenseItem missing = expenseItem("b", null);
+        ExpenseItem first = expenseItem("c", "2021-01-01T00:00:00.000Z");
+        ExpenseItem second = expenseItem("d", "2021-01-01T00:00:00.000Z");
+        List<ExpenseItem> items = new ArrayList<>(Arrays.asList(malformed, first, missing, second));
+
+        //WHEN
+        SortItems.sortNewestFirst(items);
+
+        //THEN
+        assertEquals(Arrays.asList(first, second, malformed, missing), items);
+    }
+
+    @Test
+    void comparator_orders_oldest_first() {
+        ExpenseItem older = expenseItem("a", "2021-01-01T00:00:00.000Z");
+        ExpenseItem newer = expenseItem("b", "2021-01-02T00:00:00.000Z");
+
+        assertTrue(new SortItems().compare(older, newer) < 0);
+        assertTrue(new SortItems().compare(newer, older) > 0);
+        assertEquals(0, new SortItems().compare(older, older));
+    }
+
+    private static ExpenseItem expenseItem(String id, String expenseDate) {
+        ExpenseItem expenseItem = new ExpenseItem();
+        expenseItem.setId(id);
+        expenseItem.setExpenseDate(expenseDate);
+        return expenseItem;
+    }
+}
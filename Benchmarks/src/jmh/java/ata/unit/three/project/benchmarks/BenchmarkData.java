@@ -0,0 +1,70 @@
+package ata.unit.three.project.benchmarks;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseDates;
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic test data, so runs on different machines and commits measure the same inputs.
+ */
+final class BenchmarkData {
+
+    static final String EMAIL = "benchmark@example.com";
+
+    private static final long START = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+    private static final long SPAN = 2L * 365 * 24 * 60 * 60 * 1000;
+
+    private BenchmarkData() {
+    }
+
+    static List<ExpenseItem> expenseItems(int count, long seed) {
+        Random random = new Random(seed);
+        List<ExpenseItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExpenseItem item = new ExpenseItem();
+            item.setId(new UUID(random.nextLong(), random.nextLong()).toString());
+            item.setEmail(EMAIL);
+            item.setTitle("Expense " + i);
+            item.setAmount(Math.round(random.nextDouble() * 100000) / 100.0);
+            item.setExpenseDate(ExpenseDates.format(Instant.ofEpochMilli(START + (long) (random.nextDouble() * SPAN))));
+            items.add(item);
+        }
+        return items;
+    }
+
+    static List<ExpenseItemList> expenseItemLists(int lists, int itemsPerList, long seed) {
+        List<ExpenseItemList> result = new ArrayList<>(lists);
+        for (int i = 0; i < lists; i++) {
+            ExpenseItemList list = new ExpenseItemList();
+            list.setId(new UUID(seed, i).toString());
+            list.setEmail(EMAIL);
+            list.setTitle("List " + i);
+            list.setExpenseItems(expenseItems(itemsPerList, seed + i));
+            result.add(list);
+        }
+        return result;
+    }
+
+    /**
+     * Copies the lists and their item lists (not the items) so in-place sorting starts from the
+     * same order on every invocation.
+     */
+    static List<ExpenseItemList> copyOf(List<ExpenseItemList> lists) {
+        List<ExpenseItemList> copy = new ArrayList<>(lists.size());
+        for (ExpenseItemList list : lists) {
+            ExpenseItemList listCopy = new ExpenseItemList();
+            listCopy.setId(list.getId());
+            listCopy.setEmail(list.getEmail());
+            listCopy.setTitle(list.getTitle());
+            listCopy.setExpenseItems(new ArrayList<>(list.getExpenseItems()));
+            copy.add(listCopy);
+        }
+        return copy;
+    }
+}
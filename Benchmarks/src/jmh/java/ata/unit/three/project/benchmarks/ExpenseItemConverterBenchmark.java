@@ -0,0 +1,28 @@
+package ata.unit.three.project.benchmarks;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.lambda.models.Expense;
+import ata.unit.three.project.expense.service.model.ExpenseItemConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExpenseItemConverterBenchmark {
+
+    private final ExpenseItemConverter converter = new ExpenseItemConverter();
+    private final Expense expense = new Expense(BenchmarkData.EMAIL, "Groceries", 42.17);
+
+    @Benchmark
+    public ExpenseItem convert() {
+        return converter.convert(expense);
+    }
+}
@@ -0,0 +1,74 @@
+package ata.unit.three.project.benchmarks;
+
+import ata.unit.three.project.config.SortSettings;
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.dynamodb.ExpenseServiceRepository;
+import ata.unit.three.project.expense.repository.AsyncExpenseRepository;
+import ata.unit.three.project.expense.service.ExpenseService;
+import ata.unit.three.project.expense.service.ListSorter;
+import ata.unit.three.project.expense.service.model.ExpenseItemConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseService.getExpenseListByEmail with the repository stubbed out, so only the service's own
+ * work (validation and per-list sorting) is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpenseServiceBenchmark {
+
+    @Param({"1", "10"})
+    public int lists;
+
+    @Param({"10", "1000", "5000"})
+    public int itemsPerList;
+
+    @Param({"1", "4"})
+    public int sortParallelism;
+
+    private ExpenseService expenseService;
+
+    @Setup
+    public void setUp() {
+        List<ExpenseItemList> expenseItemLists = BenchmarkData.expenseItemLists(lists, itemsPerList, 11L);
+        StubRepository repository = new StubRepository(expenseItemLists);
+        expenseService = new ExpenseService(repository, new ExpenseItemConverter(),
+                AsyncExpenseRepository.sameThread(repository),
+                new ListSorter(sortParallelism, SortSettings.sequentialCutoff()));
+    }
+
+    @Benchmark
+    public List<ExpenseItemList> getExpenseListByEmail() {
+        return expenseService.getExpenseListByEmail(BenchmarkData.EMAIL);
+    }
+
+    /**
+     * Hands out a fresh copy on every call, like a real read would, so each invocation sorts
+     * unsorted lists.
+     */
+    private static final class StubRepository extends ExpenseServiceRepository {
+        private final List<ExpenseItemList> expenseItemLists;
+
+        private StubRepository(List<ExpenseItemList> expenseItemLists) {
+            super(null);
+            this.expenseItemLists = expenseItemLists;
+        }
+
+        @Override
+        public List<ExpenseItemList> getExpenseListsByEmail(String email) {
+            return BenchmarkData.copyOf(expenseItemLists);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ata.unit.three.project.benchmarks;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItemList;
+import ata.unit.three.project.expense.lambda.json.ResponseSerializer;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing the RetrieveExpenseListsByEmail response with reflective Gson and with the handler
+ * runtime's adapter-based streaming serializer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GsonSerializationBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lists;
+
+    @Param({"10", "1000"})
+    public int itemsPerList;
+
+    private final Gson gson = new GsonBuilder().create();
+    private final ResponseSerializer serializer = new ResponseSerializer(ResponseSerializer.gson(), Long.MAX_VALUE);
+    private List<ExpenseItemList> expenseItemLists;
+
+    @Setup
+    public void setUp() {
+        expenseItemLists = BenchmarkData.expenseItemLists(lists, itemsPerList, 7L);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(expenseItemLists);
+    }
+
+    @Benchmark
+    public String streamingToJson() {
+        return serializer.toJson(expenseItemLists);
+    }
+}
@@ -0,0 +1,62 @@
+package ata.unit.three.project.benchmarks;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.dynamodb.ExpensePage;
+import ata.unit.three.project.expense.lambda.models.Expense;
+import ata.unit.three.project.expense.repository.InMemoryExpenseRepository;
+import ata.unit.three.project.expense.service.ExpenseService;
+import ata.unit.three.project.expense.service.model.ExpenseItemConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer throughput with the in-memory repository, so the numbers exclude network latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class InMemoryServiceBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int EXPENSES_PER_USER = 100;
+
+    private ExpenseService expenseService;
+
+    @Setup
+    public void setUp() {
+        InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+        for (int user = 0; user < USERS; user++) {
+            for (ExpenseItem expense : BenchmarkData.expenseItems(EXPENSES_PER_USER, user)) {
+                expense.setEmail(email(user));
+                repository.createExpense(expense);
+            }
+        }
+        expenseService = new ExpenseService(repository, new ExpenseItemConverter());
+    }
+
+    @Benchmark
+    public ExpensePage getExpensesByEmail() {
+        return expenseService.getExpensesByEmail(email(ThreadLocalRandom.current().nextInt(USERS)), 25, null);
+    }
+
+    @Benchmark
+    public String createExpense() {
+        return expenseService.createExpense(
+                new Expense(email(ThreadLocalRandom.current().nextInt(USERS)), "Coffee", 3.5));
+    }
+
+    private static String email(int user) {
+        return "user" + user + "@example.com";
+    }
+}
@@ -0,0 +1,51 @@
+package ata.unit.three.project.benchmarks;
+
+import ata.unit.three.project.expense.dynamodb.ExpenseItem;
+import ata.unit.three.project.expense.service.SortItems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Newest-first sorting of list items. Both benchmarks copy the unsorted input first, so the copy
+ * cost is included equally in each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortItemsBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private List<ExpenseItem> items;
+
+    @Setup
+    public void setUp() {
+        items = BenchmarkData.expenseItems(size, 42L);
+    }
+
+    @Benchmark
+    public List<ExpenseItem> sortNewestFirst() {
+        List<ExpenseItem> copy = new ArrayList<>(items);
+        SortItems.sortNewestFirst(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<ExpenseItem> comparatorReversed() {
+        List<ExpenseItem> copy = new ArrayList<>(items);
+        copy.sort(new SortItems().reversed());
+        return copy;
+    }
+}
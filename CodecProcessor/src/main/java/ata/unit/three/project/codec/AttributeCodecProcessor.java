@@ -0,0 +1,470 @@
+package ata.unit.three.project.codec;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates the {@code <Type>AttributeCodec} classes for types annotated with
+ * {@link GenerateAttributeCodec}.
+ *
+ * <p>A property is included when its getter carries one of the DynamoDBMapper key or attribute
+ * annotations and is not marked {@code @DynamoDBIgnore}. Supported property types are strings,
+ * numbers, booleans, {@code List<String>}, {@code Set<String>} and lists of other types that also
+ * have a generated codec. Anything else is reported as a compile error rather than silently skipped.
+ */
+@SupportedAnnotationTypes("ata.unit.three.project.codec.GenerateAttributeCodec")
+public class AttributeCodecProcessor extends AbstractProcessor {
+
+    private static final String MAPPER_PACKAGE = "com.amazonaws.services.dynamodbv2.datamodeling.";
+    private static final List<String> ATTRIBUTE_ANNOTATIONS = Arrays.asList(
+            MAPPER_PACKAGE + "DynamoDBHashKey",
+            MAPPER_PACKAGE + "DynamoDBRangeKey",
+            MAPPER_PACKAGE + "DynamoDBAttribute",
+            MAPPER_PACKAGE + "DynamoDBIndexHashKey",
+            MAPPER_PACKAGE + "DynamoDBIndexRangeKey",
+            MAPPER_PACKAGE + "DynamoDBVersionAttribute");
+    // Table and index key attributes; DynamoDB rejects empty strings in these.
+    private static final List<String> KEY_ANNOTATIONS = Arrays.asList(
+            MAPPER_PACKAGE + "DynamoDBHashKey",
+            MAPPER_PACKAGE + "DynamoDBRangeKey",
+            MAPPER_PACKAGE + "DynamoDBIndexHashKey",
+            MAPPER_PACKAGE + "DynamoDBIndexRangeKey");
+    private static final String IGNORE_ANNOTATION = MAPPER_PACKAGE + "DynamoDBIgnore";
+    private static final String JACOCO_EXCLUSION = "com.kenzie.ata.ExcludeFromJacocoGeneratedReport";
+    private static final String CODEC_SUFFIX = "AttributeCodec";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateAttributeCodec.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateAttributeCodec only applies to classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            List<Property> properties = properties(type);
+            if (properties == null) {
+                continue;
+            }
+            try {
+                write(type, properties);
+            } catch (IOException e) {
+                error(type, "Could not write attribute codec: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private List<Property> properties(TypeElement type) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        List<Property> properties = new ArrayList<>();
+        boolean valid = true;
+        for (ExecutableElement getter : methods) {
+            AnnotationMirror attribute = attributeAnnotation(getter);
+            if (attribute == null || hasAnnotation(getter, IGNORE_ANNOTATION)) {
+                continue;
+            }
+            String getterName = getter.getSimpleName().toString();
+            String suffix = getterName.startsWith("get") ? getterName.substring(3)
+                    : getterName.startsWith("is") ? getterName.substring(2) : null;
+            if (suffix == null || suffix.isEmpty() || !getter.getParameters().isEmpty()) {
+                error(getter, "DynamoDB attributes must be declared on getters");
+                valid = false;
+                continue;
+            }
+            String setterName = "set" + suffix;
+            boolean hasSetter = false;
+            for (ExecutableElement method : methods) {
+                if (method.getSimpleName().contentEquals(setterName) && method.getParameters().size() == 1
+                        && !method.getModifiers().contains(Modifier.PRIVATE)) {
+                    hasSetter = true;
+                    break;
+                }
+            }
+            if (!hasSetter) {
+                error(getter, "No setter " + setterName + " for DynamoDB attribute");
+                valid = false;
+                continue;
+            }
+
+            String propertyName = Character.toLowerCase(suffix.charAt(0)) + suffix.substring(1);
+            String attributeName = attributeName(attribute);
+            Property property = new Property(propertyName,
+                    attributeName.isEmpty() ? propertyName : attributeName,
+                    getterName, setterName, getter.getReturnType());
+            property.key = KEY_ANNOTATIONS.contains(annotationName(attribute));
+            if (!classify(property)) {
+                error(getter, "Unsupported DynamoDB attribute type " + property.type);
+                valid = false;
+                continue;
+            }
+            properties.add(property);
+        }
+        return valid ? properties : null;
+    }
+
+    private boolean classify(Property property) {
+        TypeMirror type = property.type;
+        if (type.getKind().isPrimitive()) {
+            property.primitive = true;
+            type = processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType();
+        }
+        String name = qualifiedName(type);
+        if (name == null) {
+            return false;
+        }
+        switch (name) {
+            case "java.lang.String":
+                property.kind = Kind.STRING;
+                return true;
+            case "java.lang.Boolean":
+                property.kind = Kind.BOOLEAN;
+                return true;
+            case "java.lang.Double":
+            case "java.lang.Float":
+            case "java.lang.Long":
+            case "java.lang.Integer":
+            case "java.lang.Short":
+            case "java.math.BigDecimal":
+                property.kind = Kind.NUMBER;
+                property.boxedType = name;
+                return true;
+            case "java.util.List":
+            case "java.util.Set":
+                return classifyCollection(property, name, (DeclaredType) type);
+            default:
+                return false;
+        }
+    }
+
+    private boolean classifyCollection(Property property, String collectionType, DeclaredType type) {
+        if (type.getTypeArguments().size() != 1) {
+            return false;
+        }
+        TypeMirror elementType = type.getTypeArguments().get(0);
+        String elementName = qualifiedName(elementType);
+        if ("java.lang.String".equals(elementName)) {
+            property.kind = "java.util.List".equals(collectionType) ? Kind.STRING_LIST : Kind.STRING_SET;
+            return true;
+        }
+        Element element = processingEnv.getTypeUtils().asElement(elementType);
+        if ("java.util.List".equals(collectionType) && element != null
+                && element.getAnnotation(GenerateAttributeCodec.class) != null) {
+            property.kind = Kind.MODEL_LIST;
+            property.elementType = elementName;
+            PackageElement pkg = processingEnv.getElementUtils().getPackageOf(element);
+            property.elementCodec = (pkg.isUnnamed() ? "" : pkg.getQualifiedName() + ".")
+                    + element.getSimpleName() + CODEC_SUFFIX;
+            return true;
+        }
+        return false;
+    }
+
+    private void write(TypeElement type, List<Property> properties) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.getQualifiedName().toString();
+        String modelName = type.getSimpleName().toString();
+        String codecName = modelName + CODEC_SUFFIX;
+        boolean excludeFromCoverage = processingEnv.getElementUtils().getTypeElement(JACOCO_EXCLUSION) != null;
+
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import com.amazonaws.services.dynamodbv2.model.AttributeValue;\n\n");
+        out.append("import java.util.ArrayList;\n");
+        out.append("import java.util.HashMap;\n");
+        out.append("import java.util.LinkedHashSet;\n");
+        out.append("import java.util.List;\n");
+        out.append("import java.util.Map;\n");
+        out.append("import java.util.Set;\n\n");
+        out.append("/**\n");
+        out.append(" * Converts {@link ").append(modelName).append("} to and from DynamoDB attribute maps.\n");
+        out.append(" * Generated by ").append(getClass().getName()).append("; do not edit.\n");
+        out.append(" */\n");
+        if (excludeFromCoverage) {
+            out.append('@').append(JACOCO_EXCLUSION).append('\n');
+        }
+        out.append("@SuppressWarnings(\"unused\")\n");
+        out.append("public final class ").append(codecName).append(" {\n\n");
+        for (Property property : properties) {
+            out.append("    public static final String ").append(constantName(property.name))
+                    .append(" = \"").append(property.attributeName).append("\";\n");
+        }
+        out.append('\n');
+        out.append("    private ").append(codecName).append("() {\n    }\n\n");
+
+        out.append("    public static Map<String, AttributeValue> encode(").append(modelName).append(" value) {\n");
+        out.append("        Map<String, AttributeValue> item = new HashMap<>(")
+                .append(Math.max(4, properties.size() * 2)).append(");\n");
+        for (Property property : properties) {
+            writeEncode(out, property);
+        }
+        out.append("        return item;\n");
+        out.append("    }\n\n");
+
+        out.append("    public static ").append(modelName).append(" decode(Map<String, AttributeValue> item) {\n");
+        out.append("        if (item == null) {\n            return null;\n        }\n");
+        out.append("        ").append(modelName).append(" value = new ").append(modelName).append("();\n");
+        out.append("        AttributeValue attribute;\n");
+        for (Property property : properties) {
+            writeDecode(out, property);
+        }
+        out.append("        return value;\n");
+        out.append("    }\n");
+        out.append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? codecName : packageName + "." + codecName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+
+    private void writeEncode(StringBuilder out, Property property) {
+        String getter = "value." + property.getter + "()";
+        String put = "item.put(" + constantName(property.name) + ", ";
+        String indent = "        ";
+        if (!property.primitive) {
+            out.append("        if (").append(getter).append(" != null) {\n");
+            indent = "            ";
+        }
+        switch (property.kind) {
+            case STRING:
+                if (property.key) {
+                    // DynamoDB rejects empty strings in key attributes, so they are stored as absent.
+                    out.append(indent).append("if (!").append(getter).append(".isEmpty()) {\n");
+                    out.append(indent).append("    ").append(put).append("new AttributeValue().withS(")
+                            .append(getter).append("));\n");
+                    out.append(indent).append("}\n");
+                } else {
+                    out.append(indent).append(put).append("new AttributeValue().withS(").append(getter).append("));\n");
+                }
+                break;
+            case BOOLEAN:
+                out.append(indent).append(put).append("new AttributeValue().withBOOL(").append(getter).append("));\n");
+                break;
+            case NUMBER:
+                out.append(indent).append(put).append("new AttributeValue().withN(")
+                        .append(numberToString(property, getter)).append("));\n");
+                break;
+            case STRING_LIST:
+                out.append(indent).append("List<AttributeValue> list = new ArrayList<>(")
+                        .append(getter).append(".size());\n");
+                out.append(indent).append("for (String element : ").append(getter).append(") {\n");
+                out.append(indent).append("    if (element != null) {\n");
+                out.append(indent).append("        list.add(new AttributeValue().withS(element));\n");
+                out.append(indent).append("    }\n");
+                out.append(indent).append("}\n");
+                out.append(indent).append(put).append("new AttributeValue().withL(list));\n");
+                break;
+            case STRING_SET:
+                // String sets cannot be empty in DynamoDB, so an empty set is stored as absent.
+                out.append(indent).append("if (!").append(getter).append(".isEmpty()) {\n");
+                out.append(indent).append("    ").append(put).append("new AttributeValue().withSS(")
+                        .append(getter).append("));\n");
+                out.append(indent).append("}\n");
+                break;
+            case MODEL_LIST:
+                out.append(indent).append("List<AttributeValue> list = new ArrayList<>(")
+                        .append(getter).append(".size());\n");
+                out.append(indent).append("for (").append(property.elementType).append(" element : ")
+                        .append(getter).append(") {\n");
+                out.append(indent).append("    if (element != null) {\n");
+                out.append(indent).append("        list.add(new AttributeValue().withM(")
+                        .append(property.elementCodec).append(".encode(element)));\n");
+                out.append(indent).append("    }\n");
+                out.append(indent).append("}\n");
+                out.append(indent).append(put).append("new AttributeValue().withL(list));\n");
+                break;
+            default:
+                throw new IllegalStateException("Unhandled kind " + property.kind);
+        }
+        if (!property.primitive) {
+            out.append("        }\n");
+        }
+    }
+
+    private void writeDecode(StringBuilder out, Property property) {
+        String setter = "value." + property.setter;
+        out.append("        attribute = item.get(").append(constantName(property.name)).append(");\n");
+        switch (property.kind) {
+            case STRING:
+                out.append("        if (attribute != null && attribute.getS() != null) {\n");
+                out.append("            ").append(setter).append("(attribute.getS());\n");
+                break;
+            case BOOLEAN:
+                out.append("        if (attribute != null && attribute.getBOOL() != null) {\n");
+                out.append("            ").append(setter).append("(attribute.getBOOL());\n");
+                break;
+            case NUMBER:
+                out.append("        if (attribute != null && attribute.getN() != null) {\n");
+                out.append("            ").append(setter).append("(").append(parseNumber(property))
+                        .append(");\n");
+                break;
+            case STRING_LIST:
+                out.append("        if (attribute != null && attribute.getL() != null) {\n");
+                out.append("            List<String> list = new ArrayList<>(attribute.getL().size());\n");
+                out.append("            for (AttributeValue element : attribute.getL()) {\n");
+                out.append("                if (element.getS() != null) {\n");
+                out.append("                    list.add(element.getS());\n");
+                out.append("                }\n");
+                out.append("            }\n");
+                out.append("            ").append(setter).append("(list);\n");
+                break;
+            case STRING_SET:
+                out.append("        if (attribute != null && attribute.getSS() != null) {\n");
+                out.append("            Set<String> set = new LinkedHashSet<>(attribute.getSS());\n");
+                out.append("            ").append(setter).append("(set);\n");
+                break;
+            case MODEL_LIST:
+                out.append("        if (attribute != null && attribute.getL() != null) {\n");
+                out.append("            List<").append(property.elementType)
+                        .append("> list = new ArrayList<>(attribute.getL().size());\n");
+                out.append("            for (AttributeValue element : attribute.getL()) {\n");
+                out.append("                if (element.getM() != null) {\n");
+                out.append("                    list.add(").append(property.elementCodec)
+                        .append(".decode(element.getM()));\n");
+                out.append("                }\n");
+                out.append("            }\n");
+                out.append("            ").append(setter).append("(list);\n");
+                break;
+            default:
+                throw new IllegalStateException("Unhandled kind " + property.kind);
+        }
+        out.append("        }\n");
+    }
+
+    private static String numberToString(Property property, String getter) {
+        switch (property.boxedType) {
+            case "java.lang.Double":
+            case "java.lang.Float":
+                // Plain notation; Double.toString switches to exponent form for large values.
+                return "new java.math.BigDecimal(String.valueOf(" + getter + ")).toPlainString()";
+            case "java.math.BigDecimal":
+                return getter + ".toPlainString()";
+            default:
+                return "String.valueOf(" + getter + ")";
+        }
+    }
+
+    private static String parseNumber(Property property) {
+        switch (property.boxedType) {
+            case "java.math.BigDecimal":
+                return "new java.math.BigDecimal(attribute.getN())";
+            default:
+                return property.boxedType + ".valueOf(attribute.getN())";
+        }
+    }
+
+    private AnnotationMirror attributeAnnotation(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (ATTRIBUTE_ANNOTATIONS.contains(annotationName(mirror))) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasAnnotation(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (annotation.equals(annotationName(mirror))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String annotationName(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static String attributeName(AnnotationMirror mirror) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("attributeName")) {
+                return String.valueOf(entry.getValue().getValue());
+            }
+        }
+        return "";
+    }
+
+    private static String qualifiedName(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+    }
+
+    static String constantName(String propertyName) {
+        StringBuilder constant = new StringBuilder();
+        for (int i = 0; i < propertyName.length(); i++) {
+            char c = propertyName.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(propertyName.charAt(i - 1))) {
+                constant.append('_');
+            }
+            constant.append(Character.toUpperCase(c));
+        }
+        return constant.toString();
+    }
+
+    private void error(Element element, String message) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum Kind {
+        STRING, NUMBER, BOOLEAN, STRING_LIST, STRING_SET, MODEL_LIST
+    }
+
+    private static final class Property {
+        private final String name;
+        private final String attributeName;
+        private final String getter;
+        private final String setter;
+        private final TypeMirror type;
+        private Kind kind;
+        private boolean key;
+        private boolean primitive;
+        private String boxedType;
+        private String elementType;
+        private String elementCodec;
+
+        Property(String name, String attributeName, String getter, String setter, TypeMirror type) {
+            this.name = name;
+            this.attributeName = attributeName;
+            this.getter = getter;
+            this.setter = setter;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ata.unit.three.project.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@code <Type>AttributeCodec} class next to the annotated DynamoDB model. The codec
+ * converts the model to and from the low-level {@code Map<String, AttributeValue>} form using the
+ * attribute names from the model's DynamoDBMapper annotations, without any reflection at runtime.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateAttributeCodec {
+}